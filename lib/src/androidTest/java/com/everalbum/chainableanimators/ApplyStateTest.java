@@ -0,0 +1,90 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.ObjectAnimator;
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class ApplyStateTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    @UiThreadTest
+    public void endsAtTheStartOfAChainReversedOnce() throws Exception {
+        View first = new View(context);
+        View second = new View(context);
+        chain(first, second).overallRepeat(1)
+                            .overallRepeatMode(ChainableAnimator.REVERSE)
+                            .applyEndState();
+
+        assertEquals(1f, first.getAlpha(), 0f);
+        assertEquals(0f, second.getTranslationX(), 0f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void endsAtTheEndOfAChainReversedTwice() throws Exception {
+        View first = new View(context);
+        View second = new View(context);
+        chain(first, second).overallRepeat(2)
+                            .overallRepeatMode(ChainableAnimator.REVERSE)
+                            .applyEndState();
+
+        assertEquals(0.5f, first.getAlpha(), 0f);
+        assertEquals(50f, second.getTranslationX(), 0f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void endsAtTheStartOfAnAnimatorStepReversedOnce() throws Exception {
+        View view = new View(context);
+        view.setTranslationX(20f);
+        ChainableAnimator.with(ObjectAnimator.ofFloat(view, "translationX", 0f, 50f))
+                         .setDuration(100)
+                         .repeat(1)
+                         .repeatMode(ChainableAnimator.REVERSE)
+                         .applyEndState();
+
+        assertEquals(0f, view.getTranslationX(), 0f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void endsAtTheEndOfAnAnimatorStepRestarted() throws Exception {
+        View view = new View(context);
+        ChainableAnimator.with(ObjectAnimator.ofFloat(view, "translationX", 0f, 50f))
+                         .setDuration(100)
+                         .repeat(1)
+                         .applyEndState();
+
+        assertEquals(50f, view.getTranslationX(), 0f);
+    }
+
+    private static ChainableAnimator chain(View first, View second) {
+        return ChainableAnimator.with(first)
+                                .alpha(1, 0.5f)
+                                .setDuration(100)
+                                .then(second)
+                                .translationX(0, 50)
+                                .setDuration(100);
+    }
+}
@@ -0,0 +1,25 @@
+package com.everalbum.chainableanimators;
+
+import android.os.Bundle;
+import android.support.test.InstrumentationRegistry;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Benchmarks are skipped unless requested with the <code>benchmark</code> instrumentation argument:
+ * <pre>
+ *     ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.benchmark=true
+ * </pre>
+ */
+final class Benchmarks {
+    private Benchmarks() {
+    }
+
+    /**
+     * Skips the calling test unless benchmarks were requested.
+     */
+    static void assumeRequested() {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        assumeTrue(arguments != null && "true".equals(arguments.getString("benchmark")));
+    }
+}
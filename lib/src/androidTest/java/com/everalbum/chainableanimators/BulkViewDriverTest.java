@@ -0,0 +1,128 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class BulkViewDriverTest {
+    private static final String TAG    = "BulkViewDriverTest";
+    private static final int    FRAMES = 60;
+    private static final int[]  COUNTS = {100, 500, 1000};
+
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    @UiThreadTest
+    public void drivesAllViewsWithOneAnimator() throws Exception {
+        ChainableAnimator chain = chain(views(300), true);
+
+        assertEquals(1, chain.getAnimatorCount());
+    }
+
+    @Test
+    @UiThreadTest
+    public void keepsPropertyValuesOverTime() throws Exception {
+        View[] bulkViews = views(20);
+        View[] plainViews = views(20);
+        ChainTimeline bulk = chain(bulkViews, true).timeline();
+        ChainTimeline plain = chain(plainViews, false).timeline();
+
+        for (long time = 0; time <= plain.getDuration(); time += 10) {
+            bulk.setPlayTime(time);
+            plain.setPlayTime(time);
+            for (int i = 0; i < plainViews.length; ++i) {
+                assertEquals(plainViews[i].getAlpha(), bulkViews[i].getAlpha(), 1e-4f);
+                assertEquals(plainViews[i].getTranslationY(), bulkViews[i].getTranslationY(), 1e-4f);
+                assertEquals(plainViews[i].getScaleX(), bulkViews[i].getScaleX(), 1e-4f);
+            }
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void benchmark() throws Exception {
+        Benchmarks.assumeRequested();
+        long[] bulkBytesPerView = new long[COUNTS.length];
+        for (int c = 0; c < COUNTS.length; ++c) {
+            int count = COUNTS[c];
+            for (boolean bulk : new boolean[]{false, true}) {
+                View[] views = views(count);
+                long before = usedMemory();
+                long start = System.nanoTime();
+                ChainableAnimator chain = chain(views, bulk);
+                ChainTimeline timeline = chain.timeline();
+                long built = System.nanoTime();
+                long bytes = usedMemory() - before;
+                long playing = System.nanoTime();
+                for (int frame = 0; frame <= FRAMES; ++frame) {
+                    timeline.setProgress(frame / (float) FRAMES);
+                }
+                long played = System.nanoTime();
+                int animatorCount = chain.getAnimatorCount();
+                Log.i(TAG, count + " views" + (bulk ? " in bulk" : "")
+                        + ": " + animatorCount + " animators, " + bytes / count + " bytes per view, build "
+                        + (built - start) / 1000 + " us, "
+                        + (played - playing) / 1000 / (FRAMES + 1) + " us per frame");
+                if (bulk) {
+                    assertEquals(1, animatorCount);
+                    bulkBytesPerView[c] = bytes / count;
+                }
+            }
+        }
+        // the bulk driver stores the same few floats per view and property, whatever the number of
+        // views, so its memory grows linearly
+        assertTrue(bulkBytesPerView[COUNTS.length - 1] <= Math.max(bulkBytesPerView[0], 1) * 2);
+    }
+
+    /**
+     * @return bytes of the heap in use, once garbage has been collected
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            runtime.gc();
+            System.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private View[] views(int count) {
+        View[] views = new View[count];
+        for (int i = 0; i < count; ++i) {
+            views[i] = new View(context);
+        }
+        return views;
+    }
+
+    private static ChainableAnimator chain(View[] views, boolean bulk) {
+        ChainableViewAnimator step = ChainableAnimator.with(views);
+        if (bulk) {
+            step.inBulk();
+        }
+        return step.alpha(0, 1)
+                   .translationYBy(100)
+                   .scaleX(0.5f)
+                   .setDuration(300);
+    }
+}
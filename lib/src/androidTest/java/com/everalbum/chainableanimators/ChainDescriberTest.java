@@ -0,0 +1,65 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ChainDescriberTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    @UiThreadTest
+    public void describesTheSameChainEachTime() throws Exception {
+        ChainableAnimator chain = ChainableAnimator.with(new View(context))
+                                                   .alpha(0, 1)
+                                                   .setDuration(100)
+                                                   .then(new View(context))
+                                                   .translationY(50, 0)
+                                                   .setDuration(200);
+        String description = chain.describe();
+
+        assertTrue(description.startsWith("Chain of 2 steps, 300 ms"));
+        assertEquals(2, chain.getAnimatorCount());
+        assertEquals(description, chain.describe());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @UiThreadTest
+    public void rejectsStepsAddedOnceDescribed() throws Exception {
+        ChainableViewAnimator chain = ChainableAnimator.with(new View(context));
+        chain.alpha(0, 1).setDuration(100);
+        chain.describe();
+
+        chain.then(new View(context));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    @UiThreadTest
+    public void rejectsParallelStepsAddedOnceCounted() throws Exception {
+        ChainableViewAnimator chain = ChainableAnimator.with(new View(context));
+        chain.alpha(0, 1).setDuration(100);
+        chain.getAnimatorCount();
+
+        chain.inParallelWith(new View(context));
+    }
+}
@@ -0,0 +1,169 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.content.Context;
+import android.os.Build;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ChainOptimizerTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    @UiThreadTest
+    public void collapsesParallelGroupsAndSingleAnimatorSteps() throws Exception {
+        ChainableAnimator chain = chain(new View(context), new View(context), new View(context), true);
+
+        assertTrue(chain.state.nodeCountAfter < chain.state.nodeCountBefore);
+        assertEquals(ChainOptimizer.countNodes(chain.chainedAnimators), chain.state.nodeCountAfter);
+    }
+
+    @Test
+    @UiThreadTest
+    public void keepsTotalDuration() throws Exception {
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N);
+        ChainableAnimator optimized = chain(new View(context), new View(context), new View(context), true);
+        ChainableAnimator plain = chain(new View(context), new View(context), new View(context), false);
+
+        assertEquals(plain.chainedAnimators.getTotalDuration(), optimized.chainedAnimators.getTotalDuration());
+    }
+
+    @Test
+    @UiThreadTest
+    public void keepsPropertyValuesOverTime() throws Exception {
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O);
+        View[] optimizedViews = {new View(context), new View(context), new View(context)};
+        View[] plainViews = {new View(context), new View(context), new View(context)};
+        AnimatorSet optimized = chain(optimizedViews[0], optimizedViews[1], optimizedViews[2], true).chainedAnimators;
+        AnimatorSet plain = chain(plainViews[0], plainViews[1], plainViews[2], false).chainedAnimators;
+
+        for (long time = 0; time <= plain.getTotalDuration(); time += 10) {
+            optimized.setCurrentPlayTime(time);
+            plain.setCurrentPlayTime(time);
+            for (int i = 0; i < plainViews.length; ++i) {
+                assertEquals("alpha of view " + i + " at " + time,
+                             plainViews[i].getAlpha(), optimizedViews[i].getAlpha(), 1e-4f);
+                assertEquals("translationY of view " + i + " at " + time,
+                             plainViews[i].getTranslationY(), optimizedViews[i].getTranslationY(), 1e-4f);
+                assertEquals("scaleX of view " + i + " at " + time,
+                             plainViews[i].getScaleX(), optimizedViews[i].getScaleX(), 1e-4f);
+            }
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void leavesAnimatorsOfTheUserAsIs() throws Exception {
+        View view = new View(context);
+        ObjectAnimator animator = ObjectAnimator.ofFloat(view, "alpha", 0f, 1f);
+        animator.setDuration(500);
+        Animator.AnimatorListener listener = new AnimatorListenerAdapter() {
+        };
+        animator.addListener(listener);
+        ChainableAnimator chain = ChainableAnimator.with(view)
+                                                   .translationX(0, 10)
+                                                   .setDuration(100)
+                                                   .then(animator)
+                                                   .setDuration(200);
+        chain.build();
+        chain.assemble();
+
+        assertEquals(500, animator.getDuration());
+        assertEquals(1, animator.getListeners().size());
+        assertSame(listener, animator.getListeners().get(0));
+    }
+
+    @Test
+    @UiThreadTest
+    public void mergesParallelStepsTimedTheSame() throws Exception {
+        ChainableAnimator chain = ChainableAnimator.with(new View(context))
+                                                   .alpha(0, 1)
+                                                   .setDuration(100)
+                                                   .then(new View(context))
+                                                   .alpha(0, 1)
+                                                   .setDuration(200)
+                                                   .inParallelWith(new View(context))
+                                                   .scaleX(0, 1)
+                                                   .setDuration(200)
+                                                   .inParallelWith(new View(context))
+                                                   .scaleY(0, 1)
+                                                   .setDuration(200);
+        chain.build();
+        chain.assemble();
+
+        // the root, the first step collapsed, and the merged set of the group with its three animators
+        assertEquals(6, chain.state.nodeCountAfter);
+    }
+
+    @Test
+    @UiThreadTest
+    public void wiresGroupsWithoutQuadraticDependencies() throws Exception {
+        int count = 20;
+        ChainableAnimator chain = ChainableAnimator.with(new View(context)).alpha(0, 1).setDuration(100);
+        for (int group = 0; group < 3; ++group) {
+            chain = chain.then(new View(context)).alpha(0, 1).setDuration(10);
+            for (int i = 1; i < count; ++i) {
+                // distinct durations, so the steps aren't merged
+                chain = chain.inParallelWith(new View(context)).alpha(0, 1).setDuration(10 + i);
+            }
+        }
+        chain.build();
+        chain.assemble();
+
+        // groups following each other are wrapped in a set each, rather than every animator of one
+        // group being made to depend on every animator of the other
+        assertEquals(4, chain.chainedAnimators.getChildAnimations().size());
+    }
+
+    private static ChainableAnimator chain(View first, View second, View third, boolean optimize) {
+        ChainableAnimator chain = ChainableAnimator.with(first)
+                                                   .alpha(0, 1)
+                                                   .setDuration(100)
+                                                   .setInterpolator(new DecelerateInterpolator())
+                                                   .then(second)
+                                                   .translationY(50, 0)
+                                                   .setDuration(200)
+                                                   .inParallelWith(third)
+                                                   .scaleX(0, 1)
+                                                   .setDuration(150)
+                                                   .setStartDelay(30)
+                                                   .then(first)
+                                                   .alpha(1, 0.5f)
+                                                   .setDuration(80)
+                                                   .setOverallInterpolator(new LinearInterpolator());
+        chain.build();
+        if (optimize) {
+            chain.assemble();
+        } else {
+            ChainOptimizer.assemble(chain.chainedAnimators, chain.state, false);
+        }
+        return chain;
+    }
+}
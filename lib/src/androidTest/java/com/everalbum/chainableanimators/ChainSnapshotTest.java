@@ -0,0 +1,109 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ChainSnapshotTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void survivesAParcel() throws Exception {
+        ChainSnapshot snapshot = new ChainSnapshot(1234, 2, 5, true);
+        Parcel parcel = Parcel.obtain();
+        try {
+            snapshot.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            ChainSnapshot restored = ChainSnapshot.CREATOR.createFromParcel(parcel);
+
+            assertEquals(1234, restored.getPlayTime());
+            assertEquals(2, restored.getStepIndex());
+            assertEquals(5, restored.getStepCount());
+            assertTrue(restored.isPlayingBackward());
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void resumesWithinAStep() throws Exception {
+        View first = new View(context);
+        View second = new View(context);
+        ChainPlayback playback = chain(first, second).resume(new ChainSnapshot(150, 1, 2, false));
+
+        assertEquals(0f, first.getAlpha(), 1e-4f);
+        assertEquals(25f, second.getTranslationX(), 1e-4f);
+        playback.cancel();
+    }
+
+    @Test
+    @UiThreadTest
+    public void resolvesStartValuesInChainOrder() throws Exception {
+        View view = new View(context);
+        ChainPlayback playback = ChainableAnimator.with(view)
+                                                  .alpha(1, 0.6f)
+                                                  .setDuration(100)
+                                                  .setInterpolator(new LinearInterpolator())
+                                                  .then(view)
+                                                  .alpha(0.2f)
+                                                  .setDuration(100)
+                                                  .setInterpolator(new LinearInterpolator())
+                                                  .resume(new ChainSnapshot(150, 1, 2, false));
+
+        // the second step starts where the first one ends, not where the view is when resumed
+        assertEquals(0.4f, view.getAlpha(), 1e-4f);
+        playback.cancel();
+    }
+
+    @Test
+    @UiThreadTest
+    public void wrapsOverTheIterationsOfARepeatedChain() throws Exception {
+        View first = new View(context);
+        View second = new View(context);
+        ChainPlayback playback = chain(first, second).overallRepeat(2)
+                                                     .overallRepeatMode(ChainableAnimator.REVERSE)
+                                                     .resume(new ChainSnapshot(350, 0, 2, false));
+
+        // 150 ms into the second iteration, played in reverse from the end of the chain
+        assertEquals(0.5f, first.getAlpha(), 1e-4f);
+        assertEquals(0f, second.getTranslationX(), 1e-4f);
+        ChainSnapshot snapshot = playback.snapshot();
+        assertTrue(Math.abs(snapshot.getPlayTime() - 350) <= 1);
+        assertEquals(0, snapshot.getStepIndex());
+        playback.cancel();
+    }
+
+    private static ChainableAnimator chain(View first, View second) {
+        return ChainableAnimator.with(first)
+                                .alpha(1, 0)
+                                .setDuration(100)
+                                .setInterpolator(new LinearInterpolator())
+                                .then(second)
+                                .translationX(0, 50)
+                                .setDuration(100)
+                                .setInterpolator(new LinearInterpolator());
+    }
+}
@@ -0,0 +1,99 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(AndroidJUnit4.class)
+public class ChainSpecParserTest {
+    private static final String TAG        = "ChainSpecParserTest";
+    private static final int    ITERATIONS = 1000;
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void rejectsParallelFirstStep() throws Exception {
+        try {
+            ChainSpecParser.parse(context, "{\"steps\": [{\"views\": [1], \"parallel\": true, \"alpha\": 1}]}");
+            fail("A parallel first step must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void cachesParsedSpecs() throws Exception {
+        ChainSpecCache cache = new ChainSpecCache(4);
+        String json = spec(3);
+
+        ChainSpec spec = cache.get(context, json);
+
+        assertSame(spec, cache.get(context, json));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(0.5f, cache.hitRate(), 0f);
+    }
+
+    @Test
+    public void keysResourcesByConfiguration() throws Exception {
+        Configuration portrait = new Configuration();
+        portrait.orientation = Configuration.ORIENTATION_PORTRAIT;
+        Configuration landscape = new Configuration();
+        landscape.orientation = Configuration.ORIENTATION_LANDSCAPE;
+
+        assertTrue(new ChainSpecCache.ResourceKey(1, portrait)
+                .equals(new ChainSpecCache.ResourceKey(1, new Configuration(portrait))));
+        assertFalse(new ChainSpecCache.ResourceKey(1, portrait)
+                .equals(new ChainSpecCache.ResourceKey(1, landscape)));
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        Benchmarks.assumeRequested();
+        for (int steps : new int[]{1, 10, 50}) {
+            String json = spec(steps);
+            ChainSpecCache cache = new ChainSpecCache(1);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; ++i) {
+                ChainSpecParser.parse(context, json);
+            }
+            long parsed = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; ++i) {
+                cache.get(context, json);
+            }
+            long cached = System.nanoTime();
+            Log.i(TAG, steps + " steps: parse " + (parsed - start) / 1000 / ITERATIONS + " us, cached lookup "
+                    + (cached - parsed) / ITERATIONS + " ns, hit rate " + cache.hitRate());
+            assertEquals(ITERATIONS - 1, cache.hitCount());
+        }
+    }
+
+    private static String spec(int steps) {
+        StringBuilder json = new StringBuilder("{\"duration\": 600, \"steps\": [");
+        for (int i = 0; i < steps; ++i) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"views\": [").append(i + 1).append("], \"interpolator\": \"overshoot\"")
+                .append(i > 0 && i % 2 == 0 ? ", \"parallel\": true" : "")
+                .append(", \"alpha\": [0, 1], \"translationY\": [50, 0], \"rotationBy\": 90}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,167 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.os.Build;
+import android.provider.Settings;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ChainableItemAnimatorTest {
+    private static final int COUNT = 150;
+
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    @Test
+    @UiThreadTest
+    public void endsManySimultaneousMovesOnceEach() throws Exception {
+        CountingAnimator animator = new CountingAnimator();
+        RecyclerView.ViewHolder[] holders = holders(COUNT);
+
+        for (int round = 1; round <= 2; ++round) {
+            // the second round replays the pooled run of the first one
+            for (RecyclerView.ViewHolder holder : holders) {
+                animator.animateMove(holder, 0, 100, 0, 0);
+            }
+            animator.runPendingAnimations();
+            assertTrue(animator.isRunning());
+            assertEquals(100f, holders[0].itemView.getTranslationY(), 0f);
+
+            animator.endAnimations();
+
+            assertFalse(animator.isRunning());
+            assertEquals(COUNT * round, animator.movesFinished);
+            for (RecyclerView.ViewHolder holder : holders) {
+                assertEquals(0f, holder.itemView.getTranslationY(), 0f);
+            }
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void finishesOnceEveryHolderIsEndedEarly() throws Exception {
+        CountingAnimator animator = new CountingAnimator();
+        RecyclerView.ViewHolder[] holders = holders(3);
+        for (RecyclerView.ViewHolder holder : holders) {
+            animator.animateMove(holder, 0, 100, 0, 0);
+        }
+        animator.runPendingAnimations();
+        final int[] finished = new int[1];
+        animator.isRunning(new RecyclerView.ItemAnimator.ItemAnimatorFinishedListener() {
+            @Override
+            public void onAnimationsFinished() {
+                finished[0]++;
+            }
+        });
+
+        animator.endAnimation(holders[0]);
+        animator.endAnimation(holders[1]);
+        assertTrue(animator.isRunning());
+        assertEquals(0, finished[0]);
+
+        animator.endAnimation(holders[2]);
+        assertFalse(animator.isRunning());
+        assertEquals(1, finished[0]);
+        assertEquals(3, animator.movesFinished);
+    }
+
+    @Test
+    public void keepsRunsApartWhileTheirChainsPlay() throws Exception {
+        assumeTrue(areAnimatorsEnabled());
+        final CountingAnimator animator = new CountingAnimator();
+        animator.setRemoveDuration(0);
+        animator.setMoveDuration(600);
+        final RecyclerView.ViewHolder[] first = holders(COUNT + 1);
+        final RecyclerView.ViewHolder[] second = holders(COUNT + 1);
+
+        runPendingMoves(animator, first);
+        // the removal phase of the first run is over, its moves are still playing
+        Thread.sleep(150);
+        runPendingMoves(animator, second);
+        Thread.sleep(150);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertEquals(2, animator.removesFinished);
+                assertEquals(0, animator.movesFinished);
+                // every holder of a run is driven by the same animator, so they all move together
+                float translation = first[1].itemView.getTranslationY();
+                assertNotEquals(0f, translation, 0f);
+                for (int i = 1; i < first.length; ++i) {
+                    assertEquals(translation, first[i].itemView.getTranslationY(), 0f);
+                }
+            }
+        });
+        Thread.sleep(1000);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertFalse(animator.isRunning());
+                assertEquals(COUNT * 2, animator.movesFinished);
+            }
+        });
+    }
+
+    private static void runPendingMoves(final CountingAnimator animator, final RecyclerView.ViewHolder[] holders) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                animator.animateRemove(holders[0]);
+                for (int i = 1; i < holders.length; ++i) {
+                    animator.animateMove(holders[i], 0, 100, 0, 0);
+                }
+                animator.runPendingAnimations();
+            }
+        });
+    }
+
+    private static boolean areAnimatorsEnabled() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return true;
+        }
+        Context context = InstrumentationRegistry.getTargetContext();
+        return Settings.Global.getFloat(context.getContentResolver(), Settings.Global.ANIMATOR_DURATION_SCALE, 1f) > 0;
+    }
+
+    private static RecyclerView.ViewHolder[] holders(int count) {
+        Context context = InstrumentationRegistry.getTargetContext();
+        RecyclerView.ViewHolder[] holders = new RecyclerView.ViewHolder[count];
+        for (int i = 0; i < count; ++i) {
+            holders[i] = new RecyclerView.ViewHolder(new View(context)) {
+            };
+        }
+        return holders;
+    }
+
+    private static class CountingAnimator extends ChainableItemAnimator {
+        int movesFinished;
+        int removesFinished;
+
+        @Override
+        public void onMoveFinished(RecyclerView.ViewHolder item) {
+            movesFinished++;
+        }
+
+        @Override
+        public void onRemoveFinished(RecyclerView.ViewHolder item) {
+            removesFinished++;
+        }
+    }
+}
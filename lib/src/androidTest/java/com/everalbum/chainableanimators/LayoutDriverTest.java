@@ -0,0 +1,96 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class LayoutDriverTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context     context;
+    private FrameLayout parent;
+    private View        child;
+    private int         changes;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+        parent = new FrameLayout(context);
+        child = new View(context);
+        parent.addView(child, new FrameLayout.LayoutParams(100, 100));
+        parent.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                       View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, 400, 400);
+        changes = 0;
+    }
+
+    @Test
+    @UiThreadTest
+    public void runsTheChangeOnceTheTimelineReachesItsStep() throws Exception {
+        ChainTimeline timeline = chain().timeline();
+        assertEquals(0, changes);
+
+        // the first seek plays the other animations through, but not the layout change
+        timeline.setPlayTime(50);
+        assertEquals(0, changes);
+        assertEquals(100, child.getWidth());
+
+        timeline.setPlayTime(150);
+        assertEquals(1, changes);
+        assertEquals(150, child.getWidth());
+
+        timeline.setPlayTime(200);
+        assertEquals(200, child.getWidth());
+        timeline.setPlayTime(0);
+        assertEquals(100, child.getWidth());
+        assertEquals(1, changes);
+    }
+
+    @Test
+    @UiThreadTest
+    public void leavesTheLayoutAsIsInTheStartState() throws Exception {
+        chain().applyStartState();
+
+        assertEquals(0, changes);
+        assertEquals(100, child.getWidth());
+    }
+
+    @Test
+    @UiThreadTest
+    public void runsTheChangeOnceInTheEndState() throws Exception {
+        chain().applyEndState();
+
+        assertEquals(1, changes);
+        assertEquals(200, child.getWidth());
+    }
+
+    private ChainableAnimator chain() {
+        return ChainableAnimator.with(new View(context))
+                                .alpha(0.5f)
+                                .setDuration(100)
+                                .then(parent)
+                                .layoutChange(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        changes++;
+                                        child.setLayoutParams(new FrameLayout.LayoutParams(200, 100));
+                                    }
+                                })
+                                .setDuration(100)
+                                .setInterpolator(new LinearInterpolator());
+    }
+}
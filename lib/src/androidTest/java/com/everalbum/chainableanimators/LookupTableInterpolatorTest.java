@@ -0,0 +1,119 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.TimeInterpolator;
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+import android.view.animation.AnticipateOvershootInterpolator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class LookupTableInterpolatorTest {
+    private static final String TAG     = "LookupTableInterpolatorTest";
+    private static final int    VIEWS   = 200;
+    private static final int    FRAMES  = 60;
+    private static final int    SAMPLES = 100;
+
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    public void staysCloseToTheSampledCurve() throws Exception {
+        TimeInterpolator source = new AnticipateOvershootInterpolator();
+        LookupTableInterpolator table = new LookupTableInterpolator(source, SAMPLES);
+
+        for (int i = 0; i <= 1000; ++i) {
+            float input = i / 1000f;
+            assertEquals(source.getInterpolation(input), table.getInterpolation(input), 5e-3f);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void samplesStepInterpolatorsAndKeyframeEasingsOnce() throws Exception {
+        CountingInterpolator interpolator = new CountingInterpolator();
+        CountingInterpolator easing = new CountingInterpolator();
+        ChainTimeline timeline = chain(views(VIEWS), interpolator, easing, SAMPLES).timeline();
+
+        for (int frame = 0; frame <= FRAMES; ++frame) {
+            timeline.setProgress(frame / (float) FRAMES);
+        }
+
+        // only sampled into their tables, however many views and frames
+        assertEquals(SAMPLES + 1, interpolator.count);
+        assertEquals(SAMPLES + 1, easing.count);
+    }
+
+    @Test
+    @UiThreadTest
+    public void benchmark() throws Exception {
+        Benchmarks.assumeRequested();
+        for (int samples : new int[]{0, SAMPLES}) {
+            CountingInterpolator interpolator = new CountingInterpolator();
+            CountingInterpolator easing = new CountingInterpolator();
+            ChainTimeline timeline = chain(views(VIEWS), interpolator, easing, samples).timeline();
+            long start = System.nanoTime();
+            for (int frame = 0; frame <= FRAMES; ++frame) {
+                timeline.setProgress(frame / (float) FRAMES);
+            }
+            long played = System.nanoTime();
+            Log.i(TAG, VIEWS + " views, " + (samples == 0 ? "no lookup tables" : samples + " samples") + ": "
+                    + (played - start) / 1000 / (FRAMES + 1) + " us per frame, "
+                    + (interpolator.count + easing.count) / (FRAMES + 1) + " curve evaluations per frame");
+        }
+    }
+
+    private View[] views(int count) {
+        View[] views = new View[count];
+        for (int i = 0; i < count; ++i) {
+            views[i] = new View(context);
+        }
+        return views;
+    }
+
+    private static ChainableAnimator chain(View[] views,
+                                           TimeInterpolator interpolator,
+                                           TimeInterpolator easing,
+                                           int samples) {
+        return ChainableAnimator.with(views)
+                                .alpha(0, 1)
+                                .keyframes(ChainableViewAnimator.TRANSLATION_Y,
+                                           new float[]{0f, 0.5f, 1f},
+                                           new float[]{0f, 100f, 0f},
+                                           new TimeInterpolator[]{easing, easing})
+                                .setInterpolator(interpolator)
+                                .setDuration(300)
+                                .setInterpolatorSampleCount(samples);
+    }
+
+    /**
+     * Stands for an expensive curve, such as a <code>PathInterpolator</code>.
+     */
+    private static class CountingInterpolator implements TimeInterpolator {
+        private final TimeInterpolator curve = new AnticipateOvershootInterpolator();
+        int count;
+
+        @Override
+        public float getInterpolation(float input) {
+            count++;
+            return curve.getInterpolation(input);
+        }
+    }
+}
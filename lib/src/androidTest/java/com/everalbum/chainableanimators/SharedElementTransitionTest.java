@@ -0,0 +1,66 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class SharedElementTransitionTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private View source;
+    private View target;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        source = new View(context);
+        source.layout(0, 0, 50, 50);
+        target = new View(context);
+        target.layout(100, 200, 300, 400);
+        target.setPivotX(10);
+        target.setPivotY(20);
+    }
+
+    @Test
+    @UiThreadTest
+    public void writesNothingUntilTheTransitionStarts() throws Exception {
+        SharedElementTransition.between(source, target).setDuration(100);
+
+        assertEquals(0f, target.getTranslationX(), 0f);
+        assertEquals(0f, target.getTranslationY(), 0f);
+        assertEquals(1f, target.getScaleX(), 0f);
+        assertEquals(10f, target.getPivotX(), 0f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void hidesTheSourceWhileSeeked() throws Exception {
+        ChainTimeline timeline = SharedElementTransition.between(source, target).setDuration(100).timeline();
+
+        timeline.setProgress(0.5f);
+
+        assertEquals(View.INVISIBLE, source.getVisibility());
+        assertEquals(View.LAYER_TYPE_HARDWARE, target.getLayerType());
+        assertEquals(100f, target.getPivotX(), 0f);
+
+        timeline.setProgress(1f);
+
+        assertEquals(View.VISIBLE, source.getVisibility());
+        assertEquals(View.LAYER_TYPE_NONE, target.getLayerType());
+        assertEquals(10f, target.getPivotX(), 0f);
+        assertEquals(20f, target.getPivotY(), 0f);
+        assertEquals(0f, target.getTranslationX(), 1e-4f);
+    }
+}
@@ -0,0 +1,87 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class SlotDriverTest {
+    private static final int STRIDE = 3;
+
+    private View host;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        host = new View(context);
+    }
+
+    @Test
+    public void indexesItemsOfNestedRanges() throws Exception {
+        FloatSlots slots = FloatSlots.of(host, new float[10 * STRIDE], STRIDE);
+        FloatSlots range = slots.range(2, 6).range(1, 3);
+
+        assertEquals(3, range.getItemCount());
+        assertEquals(3 * STRIDE, range.index(0, 0));
+        assertEquals(5 * STRIDE + 2, range.index(2, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsRangesOutsideOfTheSlots() throws Exception {
+        FloatSlots.of(host, new float[10 * STRIDE], STRIDE).range(2, 6).range(1, 6);
+    }
+
+    @Test
+    public void writesOnlyTheSlotOfTheItemsOfTheRange() throws Exception {
+        float[] values = new float[5 * STRIDE];
+        SlotDriver driver = new SlotDriver(FloatSlots.of(host, values, STRIDE).range(1, 3));
+        driver.add(2, 0, 10);
+
+        driver.apply(0.5f);
+
+        for (int item = 0; item < 5; ++item) {
+            float expected = item >= 1 && item <= 3 ? 5 : 0;
+            assertEquals("item " + item, expected, values[item * STRIDE + 2], 1e-4f);
+            assertEquals("item " + item, 0, values[item * STRIDE], 1e-4f);
+            assertEquals("item " + item, 0, values[item * STRIDE + 1], 1e-4f);
+        }
+    }
+
+    @Test
+    public void startsFromCurrentValuesWhenAppliedWithoutStarting() throws Exception {
+        float[] values = {1, 0, 0, 2, 0, 0};
+        SlotDriver driver = new SlotDriver(FloatSlots.of(host, values, STRIDE));
+        driver.add(0, Float.NaN, 11);
+        driver.addBy(1, 4);
+
+        driver.apply(0);
+        assertEquals(1, values[0], 1e-4f);
+        assertEquals(2, values[STRIDE], 1e-4f);
+
+        driver.apply(0.5f);
+        assertEquals(6, values[0], 1e-4f);
+        assertEquals(6.5f, values[STRIDE], 1e-4f);
+        assertEquals(2, values[1], 1e-4f);
+        assertEquals(2, values[STRIDE + 1], 1e-4f);
+    }
+
+    @Test
+    public void extrapolatesBeyondTheStep() throws Exception {
+        float[] values = new float[STRIDE];
+        SlotDriver driver = new SlotDriver(FloatSlots.of(host, values, STRIDE));
+        driver.add(0, 0, 10);
+
+        driver.apply(1.2f);
+        assertEquals(12, values[0], 1e-4f);
+
+        driver.apply(-0.1f);
+        assertEquals(-1, values[0], 1e-4f);
+    }
+}
@@ -0,0 +1,91 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+public class StepRepeaterTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    @Test
+    @UiThreadTest
+    public void repeatsAnimationsOfDifferentLengthsTogether() throws Exception {
+        ValueAnimator longer = animator(100, 0);
+        ValueAnimator delayed = animator(50, 50);
+        StepRepeater repeater = new StepRepeater(Arrays.<Animator>asList(longer, delayed), 1, ValueAnimator.REVERSE);
+
+        assertEquals(100, repeater.getDuration());
+
+        repeater.setCurrentPlayTime(75);
+        assertEquals(0.75f, longer.getAnimatedFraction(), 1e-2f);
+        assertEquals(0.5f, delayed.getAnimatedFraction(), 1e-2f);
+
+        // halfway through the reversed iteration, both are back where they were at 50 ms
+        repeater.setCurrentPlayTime(150);
+        assertEquals(0.5f, longer.getAnimatedFraction(), 1e-2f);
+        assertEquals(0f, delayed.getAnimatedFraction(), 1e-2f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void appliesItsDurationToItsAnimations() throws Exception {
+        ValueAnimator longer = animator(100, 0);
+        ValueAnimator delayed = animator(50, 50);
+        StepRepeater repeater = new StepRepeater(Arrays.<Animator>asList(longer, delayed), 2, ValueAnimator.RESTART);
+
+        repeater.setDuration(40);
+
+        assertEquals(40, longer.getDuration());
+        assertEquals(40, delayed.getDuration());
+        assertEquals(90, repeater.getDuration());
+    }
+
+    @Test
+    @UiThreadTest
+    public void forwardsItsLifecycleToListenersRemovingThemselves() throws Exception {
+        ValueAnimator child = animator(100, 0);
+        final int[] repeats = new int[2];
+        child.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationRepeat(Animator animation) {
+                repeats[0]++;
+                animation.removeListener(this);
+            }
+        });
+        child.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationRepeat(Animator animation) {
+                repeats[1]++;
+            }
+        });
+        StepRepeater repeater = new StepRepeater(Arrays.<Animator>asList(child), 2, ValueAnimator.RESTART);
+
+        repeater.onAnimationRepeat(repeater);
+        repeater.onAnimationRepeat(repeater);
+
+        assertEquals(1, repeats[0]);
+        assertEquals(2, repeats[1]);
+    }
+
+    private static ValueAnimator animator(long duration, long startDelay) {
+        ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.setDuration(duration);
+        animator.setStartDelay(startDelay);
+        animator.setInterpolator(new LinearInterpolator());
+        return animator;
+    }
+}
@@ -0,0 +1,164 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.LayerDrawable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(AndroidJUnit4.class)
+public class TargetDriverTest {
+    private static final FloatSetter<Target> FIRST = new FloatSetter<Target>() {
+        @Override
+        public void set(Target target, float value) {
+            target.first = value;
+        }
+    };
+
+    private static final FloatSetter<Target> SECOND = new FloatSetter<Target>() {
+        @Override
+        public void set(Target target, float value) {
+            target.second = value;
+        }
+    };
+
+    @Test
+    public void spacesKeyframesEvenlyOverTheStep() throws Exception {
+        Target target = new Target();
+        TargetDriver driver = new TargetDriver();
+        int index = driver.addTarget(target);
+        driver.add(index, FIRST, new float[]{0, 10, 30});
+
+        driver.apply(0.25f);
+        assertEquals(5, target.first, 1e-4f);
+
+        driver.apply(0.5f);
+        assertEquals(10, target.first, 1e-4f);
+
+        driver.apply(0.75f);
+        assertEquals(20, target.first, 1e-4f);
+
+        driver.apply(1);
+        assertEquals(30, target.first, 1e-4f);
+    }
+
+    @Test
+    public void extrapolatesTheFirstAndLastSegments() throws Exception {
+        Target target = new Target();
+        TargetDriver driver = new TargetDriver();
+        int index = driver.addTarget(target);
+        driver.add(index, FIRST, new float[]{0, 10, 30});
+
+        driver.apply(-0.25f);
+        assertEquals(-5, target.first, 1e-4f);
+
+        driver.apply(1.25f);
+        assertEquals(40, target.first, 1e-4f);
+    }
+
+    @Test
+    public void keepsTracksApart() throws Exception {
+        Target target = new Target();
+        TargetDriver driver = new TargetDriver();
+        int index = driver.addTarget(target);
+        driver.add(index, FIRST, new float[]{0, 10});
+        driver.add(index, SECOND, new float[]{100, 0, 100});
+        driver.add(index, FIRST, new float[]{0, 20});
+
+        driver.apply(0.5f);
+
+        // the last track of a setter wins
+        assertEquals(10, target.first, 1e-4f);
+        assertEquals(0, target.second, 1e-4f);
+    }
+
+    @Test
+    public void invalidatesEachHostOncePerFrame() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        CountingView host = new CountingView(context);
+        ColorDrawable first = new ColorDrawable(0xff000000);
+        ColorDrawable second = new ColorDrawable(0xffffffff);
+        LayerDrawable layers = new LayerDrawable(new Drawable[]{first, second});
+        host.setBackground(layers);
+        Target target = new Target();
+        TargetDriver driver = new TargetDriver();
+        driver.add(driver.addTarget(first), DrawableSetters.ALPHA, new float[]{0, 255});
+        driver.add(driver.addTarget(second), DrawableSetters.ALPHA, new float[]{255, 0});
+        int other = driver.addTarget(target);
+        driver.setHost(other, host);
+        driver.add(other, FIRST, new float[]{0, 10});
+
+        driver.onAnimationStart(driver.animator);
+        host.invalidates = 0;
+        driver.apply(0.5f);
+
+        assertEquals(1, host.invalidates);
+        assertEquals(128, first.getAlpha());
+        assertEquals(128, second.getAlpha());
+
+        driver.onAnimationEnd(driver.animator);
+        assertSame(host, layers.getCallback());
+    }
+
+    @Test
+    public void invalidatesTheRegionOfTheDrawables() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        CountingView host = new CountingView(context);
+        ColorDrawable first = new ColorDrawable(0xff000000);
+        ColorDrawable second = new ColorDrawable(0xffffffff);
+        LayerDrawable layers = new LayerDrawable(new Drawable[]{first, second});
+        host.setBackground(layers);
+        layers.setBounds(0, 0, 40, 20);
+        TargetDriver driver = new TargetDriver();
+        driver.add(driver.addTarget(first), DrawableSetters.ALPHA, new float[]{0, 255});
+        driver.add(driver.addTarget(second), DrawableSetters.ALPHA, new float[]{255, 0});
+
+        driver.onAnimationStart(driver.animator);
+        host.invalidates = 0;
+        driver.apply(0.5f);
+
+        assertEquals(1, host.invalidates);
+        assertEquals(new Rect(0, 0, 40, 20), host.dirty);
+        driver.onAnimationEnd(driver.animator);
+    }
+
+    private static final class CountingView extends View {
+        int  invalidates;
+        Rect dirty;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            invalidates++;
+            dirty = null;
+        }
+
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            invalidates++;
+            dirty = new Rect(l, t, r, b);
+        }
+
+        @Override
+        public void invalidate(Rect dirty) {
+            invalidate(dirty.left, dirty.top, dirty.right, dirty.bottom);
+        }
+    }
+
+    private static final class Target {
+        float first;
+        float second;
+    }
+}
@@ -0,0 +1,81 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.os.Build;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class TimelinePlayerTest {
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    @Test
+    @UiThreadTest
+    public void runsOverallHooksOnceForAllIterations() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        final int[] counts = new int[3];
+        ChainableAnimator chain = ChainableAnimator.with(new View(context))
+                                                   .alpha(1, 0)
+                                                   .setDuration(100)
+                                                   .setInterpolator(new LinearInterpolator())
+                                                   .doOnOverallAnimationStart(count(counts, 0))
+                                                   .doOnOverallAnimationRepeat(count(counts, 1))
+                                                   .doOnOverallAnimationEnd(count(counts, 2));
+        TimelinePlayer player = new TimelinePlayer(chain);
+        try {
+            player.play(0, 100, 0, 2, ChainableAnimator.RESTART);
+            player.onAnimationRepeat(null);
+            player.onAnimationRepeat(null);
+
+            assertEquals(1, counts[0]);
+            assertEquals(2, counts[1]);
+            assertEquals(0, counts[2]);
+
+            player.onAnimationEnd(null);
+            assertEquals(1, counts[2]);
+        } finally {
+            player.cancel();
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void onlySeeksAnimatorSetsFromAndroidO() throws Exception {
+        boolean canSeekSets = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O;
+        AnimatorSet set = new AnimatorSet();
+        set.play(ValueAnimator.ofFloat(0f, 1f));
+        StepRepeater repeater = new StepRepeater(Arrays.<Animator>asList(ValueAnimator.ofFloat(0f, 1f), set),
+                                                 1,
+                                                 ValueAnimator.RESTART);
+
+        assertTrue(ChainTimeline.isSeekable(ValueAnimator.ofFloat(0f, 1f)));
+        assertEquals(canSeekSets, ChainTimeline.isSeekable(set));
+        assertEquals(canSeekSets, ChainTimeline.isSeekable(repeater));
+    }
+
+    private static Runnable count(final int[] counts, final int index) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                counts[index]++;
+            }
+        };
+    }
+}
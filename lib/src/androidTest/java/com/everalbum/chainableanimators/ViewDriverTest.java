@@ -0,0 +1,190 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.rule.UiThreadTestRule;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+import android.view.animation.OvershootInterpolator;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class ViewDriverTest {
+    private static final String  TAG    = "ViewDriverTest";
+    private static final int     FRAMES = 60;
+    // a fade in and out, with a plateau in the middle
+    private static final float[] TIMES  = {0f, 0.25f, 0.75f, 1f};
+    private static final float[] VALUES = {0f, 1f, 1f, 0f};
+
+    @Rule
+    public UiThreadTestRule uiThreadTestRule = new UiThreadTestRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getTargetContext();
+    }
+
+    @Test
+    @UiThreadTest
+    public void doesNotWriteDuringPlateaus() throws Exception {
+        CountingView view = new CountingView(context);
+        ChainTimeline timeline = plateau(view).timeline();
+
+        timeline.setPlayTime(300);
+        int writes = view.alphaWrites;
+        for (long time = 300; time <= 700; time += 10) {
+            timeline.setPlayTime(time);
+        }
+
+        assertEquals(1f, view.getAlpha(), 0f);
+        assertEquals(writes, view.alphaWrites);
+    }
+
+    @Test
+    @UiThreadTest
+    public void doesNotWriteWhenSeekedToTheSamePosition() throws Exception {
+        CountingView view = new CountingView(context);
+        ChainTimeline timeline = plateau(view).timeline();
+
+        timeline.setPlayTime(100);
+        int writes = view.alphaWrites;
+        timeline.setPlayTime(100);
+        timeline.setPlayTime(100);
+
+        assertEquals(writes, view.alphaWrites);
+    }
+
+    @Test
+    @UiThreadTest
+    public void resolvesCurrentValuesInChainOrder() throws Exception {
+        View view = new View(context);
+        ChainTimeline timeline = ChainableAnimator.with(view)
+                                                  .x(100)
+                                                  .setDuration(100)
+                                                  .then(view)
+                                                  .x(200)
+                                                  .setDuration(100)
+                                                  .timeline();
+
+        // the first seek is within the first step, before the second one ever started
+        timeline.setPlayTime(50);
+        assertEquals(50f, view.getX(), 1e-3f);
+        timeline.setPlayTime(150);
+
+        // the second step starts where the first one ended, not where the view was before the chain
+        assertEquals(150f, view.getX(), 1e-3f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void extrapolatesOvershootingInterpolators() throws Exception {
+        View view = new View(context);
+        ChainTimeline timeline = ChainableAnimator.with(view)
+                                                  .translationX(0, 100)
+                                                  .setDuration(1000)
+                                                  .setInterpolator(new OvershootInterpolator())
+                                                  .timeline();
+
+        float max = 0f;
+        for (long time = 0; time <= 1000; time += 10) {
+            timeline.setPlayTime(time);
+            max = Math.max(max, view.getTranslationX());
+        }
+
+        assertTrue("overshoot reached " + max, max > 105f);
+        assertEquals(100f, view.getTranslationX(), 1e-3f);
+    }
+
+    @Test
+    @UiThreadTest
+    public void benchmark() throws Exception {
+        Benchmarks.assumeRequested();
+        CountingView[] views = new CountingView[200];
+        for (int i = 0; i < views.length; ++i) {
+            views[i] = new CountingView(context);
+        }
+        ChainableViewAnimator step = ChainableAnimator.with(views);
+        ChainTimeline timeline = step.keyframes(ChainableViewAnimator.ALPHA, TIMES, VALUES, null)
+                                     .setDuration(1000)
+                                     .timeline();
+        long start = System.nanoTime();
+        for (int frame = 0; frame <= FRAMES; ++frame) {
+            timeline.setProgress(frame / (float) FRAMES);
+        }
+        long played = System.nanoTime();
+        int writes = 0;
+        for (CountingView view : views) {
+            writes += view.alphaWrites;
+        }
+        Log.i(TAG, views.length + " views: " + (played - start) / 1000 / (FRAMES + 1) + " us per frame, "
+                + writes + " alpha writes over " + (FRAMES + 1) + " frames");
+        // half of the frames are on the plateau, and don't invalidate anything
+        assertTrue(writes < views.length * (FRAMES + 1) * 3 / 4);
+    }
+
+    private static ChainableAnimator plateau(View view) {
+        return ChainableAnimator.with(view)
+                                .keyframes(ChainableViewAnimator.ALPHA, TIMES, VALUES, null)
+                                .setDuration(1000);
+    }
+
+    /**
+     * Counts the writes of its alpha, each of which invalidates the view.
+     */
+    @Test
+    @UiThreadTest
+    public void setsTheTextColorOnlyWhenItChanges() throws Exception {
+        CountingTextView view = new CountingTextView(context);
+        ViewDriver driver = new ViewDriver(view);
+        driver.addColor(ViewDriver.TEXT_COLOR, 0xff000000, 0xffffffff);
+
+        driver.apply(0.5f);
+        driver.apply(0.5f);
+        driver.apply(0.5f);
+        assertEquals(1, view.textColorWrites);
+
+        driver.apply(1f);
+        assertEquals(2, view.textColorWrites);
+        assertEquals(0xffffffff, view.getCurrentTextColor());
+    }
+
+    private static class CountingTextView extends TextView {
+        int textColorWrites;
+
+        CountingTextView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setTextColor(int color) {
+            textColorWrites++;
+            super.setTextColor(color);
+        }
+    }
+
+    private static class CountingView extends View {
+        int alphaWrites;
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setAlpha(float alpha) {
+            alphaWrites++;
+            super.setAlpha(alpha);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.View;
+
+/**
+ * Single animator driving the same property tracks of many views within a step, for effects such
+ * as particles or large grid reveals. The start and end value of every track of every view are
+ * stored in a {@link TrackTable}, so a step costs one animator, one pair of listeners and two
+ * floats per view and property, and each frame updates every view in one loop per track.
+ * <p>
+ * Only tracks between two values are supported. Values are only written when they differ from the
+ * view's current value, as with {@link ViewDriver}.
+ */
+final class BulkViewDriver extends AnimatorListenerAdapter
+        implements ValueAnimator.AnimatorUpdateListener, TrackTable.Source {
+    final View[]             views;
+    final ValueAnimator      animator;
+    private final TrackTable tracks;
+
+    BulkViewDriver(View[] views) {
+        this.views = views;
+        tracks = new TrackTable(views.length, this);
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(this);
+        animator.addListener(this);
+    }
+
+    /**
+     * Adds a track animating the property of every view to the given value, from the given value or
+     * from its value when the driver starts if {@link Float#NaN}.
+     */
+    void add(int property, float from, float to) {
+        tracks.add(property, from, to);
+    }
+
+    /**
+     * Adds a track animating the property of every view by the given amount, from its current value.
+     */
+    void addBy(int property, float by) {
+        tracks.addBy(property, by);
+    }
+
+    @Override
+    public float get(int view, int property) {
+        return ViewProperties.get(views[view], property);
+    }
+
+    /**
+     * Appends the tracks of this driver to the given description.
+     */
+    void describe(StringBuilder out) {
+        for (int i = 0; i < tracks.trackCount; ++i) {
+            out.append(i == 0 ? "" : ", ").append(ViewProperties.name(tracks.keys[i]));
+        }
+    }
+
+    /**
+     * @return a rough estimate of the work done by this driver per frame, in property writes
+     */
+    int getCost() {
+        return tracks.trackCount * views.length;
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        tracks.resolveStartValues();
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        apply(animation.getAnimatedFraction());
+    }
+
+    /**
+     * Writes the values of every track of every view at the given interpolated fraction of the step.
+     */
+    void apply(float fraction) {
+        // in case it was seeked or applied without having been started
+        tracks.resolveStartValues();
+        float[] starts = tracks.starts;
+        float[] ends = tracks.ends;
+        int count = views.length;
+        for (int t = 0; t < tracks.trackCount; ++t) {
+            int property = tracks.keys[t];
+            int offset = t * count;
+            for (int i = 0; i < count; ++i) {
+                float from = starts[offset + i];
+                float value = from + (ends[offset + i] - from) * fraction;
+                View view = views[i];
+                if (ViewProperties.get(view, property) != value) {
+                    ViewProperties.set(view, property, value);
+                }
+            }
+        }
+    }
+}
@@ -20,6 +20,12 @@ public class CancellableSet implements Cancellable {
         cancellables.add(c);
     }
 
+    public void remove(final Cancellable c) {
+        if (cancellables != null) {
+            cancellables.remove(c);
+        }
+    }
+
     public void addAll(final Cancellable... cancellables) {
         for (Cancellable c : cancellables) {
             add(c);
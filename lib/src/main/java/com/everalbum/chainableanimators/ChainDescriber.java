@@ -0,0 +1,200 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.view.View;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes what a built chain will do: its steps laid out on the timeline, the views and
+ * properties each step animates, and how many animator and listener objects it takes to play it.
+ */
+final class ChainDescriber {
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private final ChainableAnimator             chain;
+    private final Map<Animator, ViewDriver>     drivers     = new IdentityHashMap<>();
+    private final Map<Animator, BulkViewDriver> bulkDrivers = new IdentityHashMap<>();
+    private int                                 animatorCount;
+    private int                                 setCount;
+    private int                                 listenerCount;
+    private int                                 cost;
+
+    private ChainDescriber(ChainableAnimator chain) {
+        this.chain = chain;
+        for (ChainableAnimator step : chain.state.steps) {
+            if (!(step instanceof ChainableViewAnimator)) {
+                continue;
+            }
+            ChainableViewAnimator viewStep = (ChainableViewAnimator) step;
+            if (viewStep.getDrivers() != null) {
+                for (ViewDriver driver : viewStep.getDrivers()) {
+                    if (driver != null) {
+                        drivers.put(driver.animator, driver);
+                    }
+                }
+            }
+            BulkViewDriver bulkDriver = viewStep.getBulkDriver();
+            if (bulkDriver != null) {
+                bulkDrivers.put(bulkDriver.animator, bulkDriver);
+            }
+        }
+        if (isAssembled()) {
+            count(chain.chainedAnimators);
+        } else {
+            // not started yet: count the sets as they would be played without optimization
+            setCount++;
+            for (AnimatorSet set : chain.state.animatorSets) {
+                count(set);
+            }
+        }
+    }
+
+    /**
+     * @return the number of animators of the built chain, excluding sets
+     */
+    static int countAnimators(ChainableAnimator chain) {
+        return new ChainDescriber(chain).animatorCount;
+    }
+
+    /**
+     * @return a multi-line description of the built chain
+     */
+    static String describe(ChainableAnimator chain) {
+        return new ChainDescriber(chain).describe();
+    }
+
+    private String describe() {
+        StringBuilder out = new StringBuilder();
+        ChainTimeline timeline = new ChainTimeline(chain);
+        out.append("Chain of ").append(timeline.getStepCount()).append(" steps, ")
+           .append(time(timeline.getDuration()));
+        if (chain.chainedAnimators != null) {
+            AnimatorSet overall = chain.chainedAnimators;
+            out.append(", overall duration ").append(time(overall.getDuration()))
+               .append(", overall start delay ").append(time(overall.getStartDelay()));
+        }
+        if (chain.overallInterpolator != null) {
+            out.append(", overall ").append(name(chain.overallInterpolator));
+        }
+        if (chain.overallRepeatCount != 0) {
+            out.append(", overall repeat ").append(repeat(chain.overallRepeatCount, chain.overallRepeatMode));
+        }
+        for (int i = 0; i < timeline.getStepCount(); ++i) {
+            ChainableAnimator step = timeline.getStep(i);
+            AnimatorSet set = step.currentAnimator;
+            out.append("\n  step ").append(i + 1).append(": ")
+               .append(timeline.getStepStart(i)).append(" - ").append(time(timeline.getStepEnd(i)));
+            if (i > 0 && step.group != null && step.group == timeline.getStep(i - 1).group) {
+                out.append(", in parallel with the previous step");
+            }
+            out.append("\n    duration ").append(time(set.getDuration()))
+               .append(", start delay ").append(time(set.getStartDelay()));
+            if (step.interpolator != null) {
+                out.append(", ").append(name(step.interpolator));
+            }
+            if (step.repeatCount != 0) {
+                out.append(", repeat ").append(repeat(step.repeatCount, step.repeatMode));
+            }
+            out.append(", ").append(step.hooks.getHookCount()).append(" hooks");
+            for (Animator child : step.animators) {
+                out.append("\n    ");
+                ViewDriver driver = drivers.get(child);
+                BulkViewDriver bulkDriver = bulkDrivers.get(child);
+                if (driver != null) {
+                    out.append(name(driver.view)).append(": ");
+                    driver.describe(out);
+                } else if (bulkDriver != null) {
+                    out.append(bulkDriver.views.length).append(" views in bulk: ");
+                    bulkDriver.describe(out);
+                } else {
+                    out.append(name(child)).append(", ").append(time(child.getDuration()));
+                }
+            }
+        }
+        out.append("\n").append(animatorCount).append(" animators, ")
+           .append(setCount).append(" sets, ")
+           .append(listenerCount).append(" listeners");
+        if (isAssembled()) {
+            out.append(", ").append(chain.state.nodeCountBefore).append(" nodes before optimization, ")
+               .append(chain.state.nodeCountAfter).append(" after");
+        }
+        out.append("\nestimated cost per frame: ").append(cost);
+        return out.toString();
+    }
+
+    private boolean isAssembled() {
+        return chain.chainedAnimators != null && !chain.chainedAnimators.getChildAnimations().isEmpty();
+    }
+
+    private void count(Animator animator) {
+        List<Animator.AnimatorListener> listeners = animator.getListeners();
+        if (listeners != null) {
+            listenerCount += listeners.size();
+        }
+        if (animator instanceof AnimatorSet) {
+            setCount++;
+            // every set dispatches the lifecycle of its children
+            cost++;
+            for (Animator child : ((AnimatorSet) animator).getChildAnimations()) {
+                count(child);
+            }
+        } else if (animator instanceof StepRepeater) {
+            animatorCount++;
+            // the repeater is evaluated, then seeks every animation of its step
+            cost++;
+            for (Animator child : ((StepRepeater) animator).children) {
+                count(child);
+            }
+        } else {
+            animatorCount++;
+            ViewDriver driver = drivers.get(animator);
+            BulkViewDriver bulkDriver = bulkDrivers.get(animator);
+            if (driver != null) {
+                cost += 1 + driver.getCost();
+            } else if (bulkDriver != null) {
+                cost += 1 + bulkDriver.getCost();
+            } else {
+                // evaluating the animator, and at least one write or listener call
+                cost += animator instanceof ValueAnimator ? 2 : 1;
+            }
+        }
+    }
+
+    private static String time(long ms) {
+        if (ms < 0) {
+            return "default";
+        }
+        return ms >= INFINITE ? "infinite" : ms + " ms";
+    }
+
+    private static String repeat(int count, int mode) {
+        return (count == ValueAnimator.INFINITE ? "forever" : count + "x")
+                + (mode == ChainableAnimator.REVERSE ? " (reverse)" : "");
+    }
+
+    private static String name(Object object) {
+        return object.getClass().getSimpleName();
+    }
+
+    private static String name(View view) {
+        String name = view.getClass().getSimpleName();
+        if (view.getId() != View.NO_ID) {
+            name += "#" + Integer.toHexString(view.getId());
+        }
+        return name;
+    }
+
+    private static String name(TimeInterpolator interpolator) {
+        if (interpolator instanceof LookupTableInterpolator) {
+            LookupTableInterpolator table = (LookupTableInterpolator) interpolator;
+            return name((Object) table.getSource()) + " (" + table.getSampleCount() + " samples)";
+        }
+        return name((Object) interpolator);
+    }
+}
@@ -0,0 +1,227 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assembles the sets of a built chain into the set that plays it, collapsing nesting that doesn't
+ * affect timing:
+ * <ul>
+ *     <li>steps of a parallel group with the same duration, start delay and interpolator are
+ *     merged into a single set, which runs the lifecycle hooks of all of them</li>
+ *     <li>a group of parallel steps is wired into the chain directly, instead of through an
+ *     extra set wrapping the group, as long as the groups before and after it are single
+ *     animators, so that the chain never needs more dependencies than it has animators</li>
+ *     <li>a step animating a single animator created by the chain, without a start delay of its
+ *     own, is replaced by that animator, and the lifecycle hooks of the step are moved onto it.
+ *     Animators supplied by the user are never modified.</li>
+ * </ul>
+ * Every group of the chain still starts once all animations of the previous group have ended, and
+ * overall and step durations and interpolators end up on the same animators, so the compiled
+ * {@link ChainTimeline} of the chain is unaffected.
+ */
+final class ChainOptimizer {
+    private ChainOptimizer() {
+    }
+
+    /**
+     * Adds the sets of the chain to the given root set, in series.
+     * @param optimize whether to collapse redundant nesting, rather than playing the sets as is
+     */
+    static void assemble(AnimatorSet root, ChainableAnimator.State state, boolean optimize) {
+        state.nodeCountBefore = 1;
+        for (AnimatorSet set : state.animatorSets) {
+            state.nodeCountBefore += countNodes(set);
+        }
+
+        Map<Animator, ChainableAnimator> steps = new IdentityHashMap<>();
+        for (ChainableAnimator step : state.steps) {
+            steps.put(step.currentAnimator, step);
+        }
+        int count = state.animatorSets.size();
+        List<List<Animator>> groups = new ArrayList<>(count);
+        for (AnimatorSet set : state.animatorSets) {
+            List<Animator> group = new ArrayList<>();
+            if (optimize && !steps.containsKey(set) && isPlain(set)) {
+                // a parallel group, whose steps already cancel the chain when they are cancelled
+                merge(set.getChildAnimations(), steps, group);
+            } else {
+                group.add(set);
+            }
+            if (optimize) {
+                for (int i = 0; i < group.size(); ++i) {
+                    ChainableAnimator step = steps.get(group.get(i));
+                    if (step != null) {
+                        group.set(i, collapse(step));
+                    }
+                }
+            }
+            groups.add(group);
+        }
+
+        // only wire the animators of a group into the chain directly if the groups around it are
+        // single animators, otherwise every animator of one would depend on every animator of the other
+        List<List<Animator>> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            List<Animator> group = groups.get(i);
+            boolean isFlat = group.size() == 1
+                    || ((i == 0 || nodes.get(i - 1).size() == 1)
+                        && (i == count - 1 || groups.get(i + 1).size() == 1));
+            if (!isFlat) {
+                AnimatorSet set = state.animatorSets.get(i);
+                if (!group.equals(set.getChildAnimations())) {
+                    AnimatorSet wrapper = new AnimatorSet();
+                    wrapper.playTogether(group);
+                    if (set.getListeners() != null) {
+                        for (Animator.AnimatorListener listener : set.getListeners()) {
+                            wrapper.addListener(listener);
+                        }
+                    }
+                    set = wrapper;
+                }
+                group = new ArrayList<>();
+                group.add(set);
+            }
+            nodes.add(group);
+        }
+
+        if (nodes.size() == 1) {
+            for (Animator a : nodes.get(0)) {
+                root.play(a);
+            }
+        } else {
+            for (int i = 0; i < nodes.size() - 1; ++i) {
+                for (Animator a : nodes.get(i)) {
+                    for (Animator next : nodes.get(i + 1)) {
+                        root.play(a).before(next);
+                    }
+                }
+            }
+        }
+        state.nodeCountAfter = countNodes(root);
+    }
+
+    /**
+     * @return the number of animators in the tree rooted at the given animator, including itself
+     */
+    static int countNodes(Animator animator) {
+        int count = 1;
+        if (animator instanceof AnimatorSet) {
+            for (Animator child : ((AnimatorSet) animator).getChildAnimations()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the animators of a parallel group to the given list, merging the sets of the steps that
+     * are timed the same into one.
+     */
+    private static void merge(List<Animator> members, Map<Animator, ChainableAnimator> steps, List<Animator> out) {
+        boolean[] isMerged = new boolean[members.size()];
+        for (int i = 0; i < members.size(); ++i) {
+            if (isMerged[i]) {
+                continue;
+            }
+            Animator member = members.get(i);
+            ChainableAnimator step = steps.get(member);
+            List<ChainableAnimator> sameTiming = null;
+            if (step != null && isMergeable(step)) {
+                for (int j = i + 1; j < members.size(); ++j) {
+                    ChainableAnimator other = steps.get(members.get(j));
+                    if (!isMerged[j] && other != null && isMergeable(other) && isTimedAs(step, other)) {
+                        if (sameTiming == null) {
+                            sameTiming = new ArrayList<>();
+                            sameTiming.add(step);
+                        }
+                        sameTiming.add(other);
+                        isMerged[j] = true;
+                    }
+                }
+            }
+            out.add(sameTiming == null ? member : mergeSets(sameTiming));
+        }
+    }
+
+    private static AnimatorSet mergeSets(List<ChainableAnimator> sameTiming) {
+        AnimatorSet first = sameTiming.get(0).currentAnimator;
+        AnimatorSet merged = new AnimatorSet();
+        merged.setDuration(first.getDuration());
+        merged.setStartDelay(first.getStartDelay());
+        merged.setInterpolator(sameTiming.get(0).interpolator);
+        List<Animator> children = new ArrayList<>();
+        for (ChainableAnimator step : sameTiming) {
+            children.addAll(step.currentAnimator.getChildAnimations());
+        }
+        merged.playTogether(children);
+        for (ChainableAnimator step : sameTiming) {
+            merged.addListener(step.hooks);
+        }
+        return merged;
+    }
+
+    /**
+     * @return whether the set of the step ends at a fixed time, whatever its animations, and only
+     * runs the hooks of the step
+     */
+    private static boolean isMergeable(ChainableAnimator step) {
+        AnimatorSet set = step.currentAnimator;
+        return set.getDuration() >= 0
+                && set.getListeners() != null
+                && set.getListeners().size() == 1;
+    }
+
+    private static boolean isTimedAs(ChainableAnimator step, ChainableAnimator other) {
+        TimeInterpolator interpolator = step.interpolator;
+        return step.currentAnimator.getDuration() == other.currentAnimator.getDuration()
+                && step.currentAnimator.getStartDelay() == other.currentAnimator.getStartDelay()
+                && (interpolator == null ? other.interpolator == null : interpolator.equals(other.interpolator));
+    }
+
+    /**
+     * Returns the single animator of the step, with the timing and hooks of the step moved onto
+     * it, or the set of the step if it can't be collapsed.
+     */
+    private static Animator collapse(ChainableAnimator step) {
+        AnimatorSet set = step.currentAnimator;
+        List<Animator> children = set.getChildAnimations();
+        if (children.size() != 1
+                || !(children.get(0) instanceof ValueAnimator)
+                || !step.state.owned.containsKey(children.get(0))
+                || set.getStartDelay() != 0
+                || set.getListeners() == null
+                || set.getListeners().size() != 1) {
+            return set;
+        }
+        Animator child = children.get(0);
+        if (set.getDuration() >= 0) {
+            child.setDuration(set.getDuration());
+        }
+        if (step.interpolator != null) {
+            child.setInterpolator(step.interpolator);
+        }
+        // the hooks of the step run before the listeners of the animator, as they did on the set
+        List<Animator.AnimatorListener> listeners = child.getListeners() == null
+                ? new ArrayList<Animator.AnimatorListener>()
+                : new ArrayList<>(child.getListeners());
+        child.removeAllListeners();
+        child.addListener(step.hooks);
+        for (Animator.AnimatorListener listener : listeners) {
+            child.addListener(listener);
+        }
+        set.removeListener(step.hooks);
+        return child;
+    }
+
+    private static boolean isPlain(AnimatorSet set) {
+        return set.getStartDelay() == 0 && set.getDuration() < 0;
+    }
+}
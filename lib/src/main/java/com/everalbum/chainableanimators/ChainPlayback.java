@@ -0,0 +1,22 @@
+package com.everalbum.chainableanimators;
+
+/**
+ * Handle to a started chain of animations, returned by {@link ChainableAnimator#startPlayback()}.
+ */
+@SuppressWarnings("WeakerAccess")
+public interface ChainPlayback extends Cancellable {
+    /**
+     * Plays the chain backward from its current position, whether it is still running or has
+     * already finished. Calling this again while the chain is playing backward plays it forward.
+     * Before Android O, chains playing {@link android.animation.AnimatorSet}s of their own can't
+     * be reversed, and throw an {@link IllegalStateException}.
+     */
+    void reverse();
+
+    /**
+     * Captures the current position of the chain, to resume an equivalent chain from it with
+     * {@link ChainableAnimator#resume(ChainSnapshot)}, e.g. after a configuration change.
+     * @return a {@link ChainSnapshot} that can be saved in an instance state bundle
+     */
+    ChainSnapshot snapshot();
+}
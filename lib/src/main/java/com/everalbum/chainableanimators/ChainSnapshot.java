@@ -0,0 +1,97 @@
+package com.everalbum.chainableanimators;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+/**
+ * Position of a started chain, taken with {@link ChainPlayback#snapshot()}, that survives
+ * configuration changes. After recreation, build the same chain on the new views and resume it
+ * with {@link ChainableAnimator#resume(ChainSnapshot)}:
+ * <pre>
+ *     protected void onSaveInstanceState(Bundle outState) {
+ *         super.onSaveInstanceState(outState);
+ *         outState.putParcelable("intro", introPlayback.snapshot());
+ *     }
+ *
+ *     protected void onCreate(Bundle savedInstanceState) {
+ *         ...
+ *         ChainSnapshot snapshot = savedInstanceState == null ? null : savedInstanceState.getParcelable("intro");
+ *         introPlayback = buildIntro(title, subtitle).resume(snapshot);
+ *     }
+ * </pre>
+ */
+public final class ChainSnapshot implements Parcelable {
+    public static final Creator<ChainSnapshot> CREATOR = new Creator<ChainSnapshot>() {
+        @Override
+        public ChainSnapshot createFromParcel(Parcel source) {
+            return new ChainSnapshot(source.readLong(), source.readInt(), source.readInt(), source.readInt() != 0);
+        }
+
+        @Override
+        public ChainSnapshot[] newArray(int size) {
+            return new ChainSnapshot[size];
+        }
+    };
+
+    private final long    playTime;
+    private final int     stepIndex;
+    private final int     stepCount;
+    private final boolean isPlayingBackward;
+
+    ChainSnapshot(long playTime, int stepIndex, int stepCount, boolean isPlayingBackward) {
+        this.playTime = playTime;
+        this.stepIndex = stepIndex;
+        this.stepCount = stepCount;
+        this.isPlayingBackward = isPlayingBackward;
+    }
+
+    /**
+     * @return position of the chain on its timeline in ms, excluding the overall start delay. For a
+     * chain repeated with {@link ChainableAnimator#overallRepeat(int)}, the time played across all
+     * of its iterations instead, which resuming wraps back onto the timeline.
+     */
+    public long getPlayTime() {
+        return playTime;
+    }
+
+    /**
+     * @return index of the last step, in chain order, that had started at the time of the snapshot,
+     * within the current iteration
+     */
+    public int getStepIndex() {
+        return stepIndex;
+    }
+
+    /**
+     * @return number of steps of the chain the snapshot was taken from
+     */
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * @return whether the chain was playing backward after being reversed
+     */
+    public boolean isPlayingBackward() {
+        return isPlayingBackward;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeLong(playTime);
+        dest.writeInt(stepIndex);
+        dest.writeInt(stepCount);
+        dest.writeInt(isPlayingBackward ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return "ChainSnapshot{step " + (stepIndex + 1) + " of " + stepCount + ", " + playTime + " ms"
+                + (isPlayingBackward ? ", backward" : "") + "}";
+    }
+}
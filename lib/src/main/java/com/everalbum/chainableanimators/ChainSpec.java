@@ -0,0 +1,707 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable description of an animation chain, whose steps reference views by id. A spec doesn't
+ * touch any view, handler or animator, so it can be built on any thread and shared:
+ * <pre>
+ *     ChainSpec spec = new ChainSpec.Builder()
+ *             .with(R.id.title, R.id.subtitle)
+ *             .alpha(0, 1)
+ *             .translationY(50, 0)
+ *             .then(R.id.button)
+ *             .alpha(0, 1)
+ *             .build();
+ * </pre>
+ * It is bound to actual views on the main thread with {@link #bind(View)} or {@link #start(View)}.
+ * The keyframes of every step are computed once, when the spec is built, so binding only looks up
+ * the views and hands them the shared keyframes.
+ */
+public final class ChainSpec {
+    private final Step[]           steps;
+    private final long             overallDuration;
+    private final long             overallStartDelay;
+    private final TimeInterpolator overallInterpolator;
+    private final int              overallRepeatCount;
+    private final int              overallRepeatMode;
+    private final int              interpolatorSamples;
+    private final Runnable[]       overallStartHooks;
+    private final Runnable[]       overallEndHooks;
+    private final Runnable[]       overallCancelHooks;
+    private final Runnable[]       overallRepeatHooks;
+    private final Runnable[]       overallDelayedEndHooks;
+    private final long[]           overallEndDelays;
+
+    private ChainSpec(Builder builder) {
+        steps = new Step[builder.steps.size()];
+        for (int i = 0; i < steps.length; ++i) {
+            steps[i] = new Step(builder.steps.get(i));
+        }
+        overallDuration = builder.overallDuration;
+        overallStartDelay = builder.overallStartDelay;
+        overallInterpolator = builder.overallInterpolator;
+        overallRepeatCount = builder.overallRepeatCount;
+        overallRepeatMode = builder.overallRepeatMode;
+        interpolatorSamples = builder.interpolatorSamples;
+        overallStartHooks = toArray(builder.overallStartHooks);
+        overallEndHooks = toArray(builder.overallEndHooks);
+        overallCancelHooks = toArray(builder.overallCancelHooks);
+        overallRepeatHooks = toArray(builder.overallRepeatHooks);
+        overallDelayedEndHooks = toArray(builder.overallDelayedEndHooks);
+        overallEndDelays = toArray(builder.overallEndDelays, overallDelayedEndHooks.length);
+    }
+
+    /**
+     * Binds this spec to the views found under the given root and starts it. Must be called on the
+     * main thread.
+     * @param root view in which to look up the views referenced by the spec
+     * @return {@link ChainPlayback} to cancel or reverse the animations
+     */
+    public ChainPlayback start(View root) {
+        return bind(root).startPlayback();
+    }
+
+    /**
+     * Binds this spec to the views found under the given root, without starting it. Must be called
+     * on the main thread.
+     * @param root view in which to look up the views referenced by the spec
+     * @return the last {@link ChainableAnimator} of the bound chain, which can be started or
+     * compiled into a {@link ChainTimeline}
+     */
+    public ChainableAnimator bind(View root) {
+        ChainableViewAnimator animator = null;
+        for (Step step : steps) {
+            View[] views = findViews(root, step.viewIds);
+            if (animator == null) {
+                animator = ChainableAnimator.with(views);
+            } else if (step.inParallel) {
+                animator = animator.inParallelWith(views);
+            } else {
+                animator = animator.then(views);
+            }
+            step.apply(animator);
+        }
+        if (overallDuration >= 0) {
+            animator.setOverallDuration(overallDuration);
+        }
+        if (overallStartDelay >= 0) {
+            animator.setOverallStartDelay(overallStartDelay);
+        }
+        if (overallInterpolator != null) {
+            animator.setOverallInterpolator(overallInterpolator);
+        }
+        if (overallRepeatCount == ValueAnimator.INFINITE) {
+            animator.overallRepeatForever();
+        } else {
+            animator.overallRepeat(overallRepeatCount);
+        }
+        animator.overallRepeatMode(overallRepeatMode);
+        animator.setInterpolatorSampleCount(interpolatorSamples);
+        for (Runnable r : overallStartHooks) {
+            animator.doOnOverallAnimationStart(r);
+        }
+        for (Runnable r : overallEndHooks) {
+            animator.doOnOverallAnimationEnd(r);
+        }
+        for (Runnable r : overallCancelHooks) {
+            animator.doOnOverallAnimationCancel(r);
+        }
+        for (Runnable r : overallRepeatHooks) {
+            animator.doOnOverallAnimationRepeat(r);
+        }
+        for (int i = 0; i < overallDelayedEndHooks.length; ++i) {
+            animator.doOnOverallAnimationEndDelayed(overallDelayedEndHooks[i], overallEndDelays[i]);
+        }
+        return animator;
+    }
+
+    private static View[] findViews(View root, int[] ids) {
+        View[] views = new View[ids.length];
+        for (int i = 0; i < ids.length; ++i) {
+            views[i] = root.findViewById(ids[i]);
+            if (views[i] == null) {
+                throw new IllegalArgumentException("No view found with id " + ids[i]);
+            }
+        }
+        return views;
+    }
+
+    private static Runnable[] toArray(List<Runnable> list) {
+        return list.toArray(new Runnable[list.size()]);
+    }
+
+    private static long[] toArray(List<Long> list, int count) {
+        long[] array = new long[count];
+        for (int i = 0; i < count; ++i) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static final class Step {
+        final int[]            viewIds;
+        final boolean          inParallel;
+        final long             duration;
+        final long             startDelay;
+        final TimeInterpolator interpolator;
+        final int              repeatCount;
+        final int              repeatMode;
+        final int[]            properties;
+        final boolean[]        relative;
+        // per property: the offset to animate by if relative, otherwise the keyframes
+        final float[]          offsets;
+        final float[][]        keyTimes;
+        final float[][]        keyValues;
+        final Runnable[]       startHooks;
+        final Runnable[]       endHooks;
+        final Runnable[]       cancelHooks;
+        final Runnable[]       delayedEndHooks;
+        final long[]           endDelays;
+
+        Step(StepBuilder builder) {
+            viewIds = builder.viewIds;
+            inParallel = builder.inParallel;
+            duration = builder.duration;
+            startDelay = builder.startDelay;
+            interpolator = builder.interpolator;
+            repeatCount = builder.repeatCount;
+            repeatMode = builder.repeatMode;
+            int count = builder.properties.size();
+            properties = new int[count];
+            relative = new boolean[count];
+            offsets = new float[count];
+            keyTimes = new float[count][];
+            keyValues = new float[count][];
+            for (int i = 0; i < count; ++i) {
+                properties[i] = builder.properties.get(i);
+                relative[i] = builder.relative.get(i);
+                float[] values = builder.values.get(i);
+                if (relative[i]) {
+                    offsets[i] = values[0];
+                } else {
+                    keyTimes[i] = ChainableViewAnimator.keyTimes(values);
+                    keyValues[i] = ChainableViewAnimator.keyValues(values);
+                }
+            }
+            startHooks = toArray(builder.startHooks);
+            endHooks = toArray(builder.endHooks);
+            cancelHooks = toArray(builder.cancelHooks);
+            delayedEndHooks = toArray(builder.delayedEndHooks);
+            endDelays = toArray(builder.endDelays, delayedEndHooks.length);
+        }
+
+        void apply(ChainableViewAnimator animator) {
+            if (duration >= 0) {
+                animator.setDuration(duration);
+            }
+            if (startDelay >= 0) {
+                animator.setStartDelay(startDelay);
+            }
+            if (interpolator != null) {
+                animator.setInterpolator(interpolator);
+            }
+            if (repeatCount == ValueAnimator.INFINITE) {
+                animator.repeatForever();
+            } else {
+                animator.repeat(repeatCount);
+            }
+            animator.repeatMode(repeatMode);
+            for (int i = 0; i < properties.length; ++i) {
+                if (relative[i]) {
+                    // relative to the values of the bound views
+                    ViewProperties.animate(animator, properties[i], true, offsets[i]);
+                } else if (ViewProperties.isSupported(properties[i])) {
+                    if (keyValues[i].length > 1 && ViewProperties.setsStartValue(properties[i])) {
+                        for (View view : animator.getViews()) {
+                            ViewProperties.set(view, properties[i], keyValues[i][0]);
+                        }
+                    }
+                    animator.animateKeyframes(properties[i], keyTimes[i], keyValues[i]);
+                }
+            }
+            for (Runnable r : startHooks) {
+                animator.doOnAnimationStart(r);
+            }
+            for (Runnable r : endHooks) {
+                animator.doOnAnimationEnd(r);
+            }
+            for (Runnable r : cancelHooks) {
+                animator.doOnAnimationCancel(r);
+            }
+            for (int i = 0; i < delayedEndHooks.length; ++i) {
+                animator.doOnAnimationEndDelayed(delayedEndHooks[i], endDelays[i]);
+            }
+        }
+    }
+
+    private static final class StepBuilder {
+        final int[]          viewIds;
+        final boolean        inParallel;
+        long                 duration   = -1;
+        long                 startDelay = -1;
+        TimeInterpolator     interpolator;
+        int                  repeatCount;
+        int                  repeatMode = ChainableAnimator.RESTART;
+        final List<Integer>  properties      = new ArrayList<>();
+        final List<Boolean>  relative        = new ArrayList<>();
+        final List<float[]>  values          = new ArrayList<>();
+        final List<Runnable> startHooks      = new ArrayList<>();
+        final List<Runnable> endHooks        = new ArrayList<>();
+        final List<Runnable> cancelHooks     = new ArrayList<>();
+        final List<Runnable> delayedEndHooks = new ArrayList<>();
+        final List<Long>     endDelays       = new ArrayList<>();
+
+        StepBuilder(int[] viewIds, boolean inParallel) {
+            if (viewIds == null || viewIds.length == 0) {
+                throw new IllegalArgumentException("Require at least one view to be able to animate");
+            }
+            this.viewIds = viewIds.clone();
+            this.inParallel = inParallel;
+        }
+    }
+
+    /**
+     * Builds a {@link ChainSpec} with the same fluent-api as {@link ChainableViewAnimator}. Views are
+     * referenced by id. A builder is not thread-safe, but may be used on any thread.
+     */
+    public static final class Builder {
+        final List<StepBuilder> steps                  = new ArrayList<>();
+        final List<Runnable>    overallStartHooks      = new ArrayList<>();
+        final List<Runnable>    overallEndHooks        = new ArrayList<>();
+        final List<Runnable>    overallCancelHooks     = new ArrayList<>();
+        final List<Runnable>    overallRepeatHooks     = new ArrayList<>();
+        final List<Runnable>    overallDelayedEndHooks = new ArrayList<>();
+        final List<Long>        overallEndDelays       = new ArrayList<>();
+        long                    overallDuration        = -1;
+        long                    overallStartDelay      = -1;
+        TimeInterpolator        overallInterpolator;
+        int                     overallRepeatCount;
+        int                     overallRepeatMode      = ChainableAnimator.RESTART;
+        int                     interpolatorSamples;
+
+        /**
+         * Starts the chain with the views with the given ids, animated in parallel.
+         * @param viewIds ids of one or more views
+         * @return This object, allowing calls to methods in this class to be chained.
+         */
+        public Builder with(int... viewIds) {
+            if (!steps.isEmpty()) {
+                throw new IllegalStateException("with() must only be called once, use then() or inParallelWith()");
+            }
+            steps.add(new StepBuilder(viewIds, false));
+            return this;
+        }
+
+        /**
+         * Adds the views with the given ids to be played in series, after the current animation.
+         * @param viewIds ids of one or more views
+         * @return This object, allowing calls to methods in this class to be chained.
+         */
+        public Builder then(int... viewIds) {
+            current();
+            steps.add(new StepBuilder(viewIds, false));
+            return this;
+        }
+
+        /**
+         * Adds the views with the given ids to be played in parallel with the current animation.
+         * @param viewIds ids of one or more views
+         * @return This object, allowing calls to methods in this class to be chained.
+         */
+        public Builder inParallelWith(int... viewIds) {
+            current();
+            steps.add(new StepBuilder(viewIds, true));
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setDuration(long)
+         */
+        public Builder setDuration(long duration) {
+            current().duration = duration;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setStartDelay(long)
+         */
+        public Builder setStartDelay(long startDelay) {
+            current().startDelay = startDelay;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setInterpolator(TimeInterpolator)
+         */
+        public Builder setInterpolator(TimeInterpolator interpolator) {
+            current().interpolator = interpolator;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#repeat(int)
+         */
+        public Builder repeat(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Repeat count must be greater than 0.");
+            }
+            current().repeatCount = count;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#repeatForever()
+         */
+        public Builder repeatForever() {
+            current().repeatCount = ValueAnimator.INFINITE;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#repeatMode(int)
+         */
+        public Builder repeatMode(int mode) {
+            current().repeatMode = mode;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnAnimationStart(Runnable)
+         */
+        public Builder doOnAnimationStart(Runnable r) {
+            current().startHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnAnimationEnd(Runnable)
+         */
+        public Builder doOnAnimationEnd(Runnable r) {
+            current().endHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnAnimationCancel(Runnable)
+         */
+        public Builder doOnAnimationCancel(Runnable r) {
+            current().cancelHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnAnimationEndDelayed(Runnable, long)
+         */
+        public Builder doOnAnimationEndDelayed(Runnable r, long delay) {
+            StepBuilder step = current();
+            step.delayedEndHooks.add(r);
+            step.endDelays.add(delay);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setOverallDuration(long)
+         */
+        public Builder setOverallDuration(long duration) {
+            overallDuration = duration;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setOverallStartDelay(long)
+         */
+        public Builder setOverallStartDelay(long startDelay) {
+            overallStartDelay = startDelay;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setOverallInterpolator(TimeInterpolator)
+         */
+        public Builder setOverallInterpolator(TimeInterpolator interpolator) {
+            overallInterpolator = interpolator;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#setInterpolatorSampleCount(int)
+         */
+        public Builder setInterpolatorSampleCount(int sampleCount) {
+            if (sampleCount < 0) {
+                throw new IllegalArgumentException("Sample count must be greater than 0.");
+            }
+            interpolatorSamples = sampleCount;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#overallRepeat(int)
+         */
+        public Builder overallRepeat(int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Repeat count must be greater than 0.");
+            }
+            overallRepeatCount = count;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#overallRepeatForever()
+         */
+        public Builder overallRepeatForever() {
+            overallRepeatCount = ValueAnimator.INFINITE;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#overallRepeatMode(int)
+         */
+        public Builder overallRepeatMode(int mode) {
+            overallRepeatMode = mode;
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnOverallAnimationStart(Runnable)
+         */
+        public Builder doOnOverallAnimationStart(Runnable r) {
+            overallStartHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnOverallAnimationEnd(Runnable)
+         */
+        public Builder doOnOverallAnimationEnd(Runnable r) {
+            overallEndHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnOverallAnimationCancel(Runnable)
+         */
+        public Builder doOnOverallAnimationCancel(Runnable r) {
+            overallCancelHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnOverallAnimationRepeat(Runnable)
+         */
+        public Builder doOnOverallAnimationRepeat(Runnable r) {
+            overallRepeatHooks.add(r);
+            return this;
+        }
+
+        /**
+         * @see ChainableAnimator#doOnOverallAnimationEndDelayed(Runnable, long)
+         */
+        public Builder doOnOverallAnimationEndDelayed(Runnable r, long delay) {
+            overallDelayedEndHooks.add(r);
+            overallEndDelays.add(delay);
+            return this;
+        }
+
+        /**
+         * @see ChainableViewAnimator#x(float...)
+         */
+        public Builder x(float... values) {
+            return property(ViewProperties.X, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#xBy(float)
+         */
+        public Builder xBy(float value) {
+            return property(ViewProperties.X, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#y(float...)
+         */
+        public Builder y(float... values) {
+            return property(ViewProperties.Y, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#yBy(float)
+         */
+        public Builder yBy(float value) {
+            return property(ViewProperties.Y, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#z(float...)
+         */
+        public Builder z(float... values) {
+            return property(ViewProperties.Z, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#zBy(float)
+         */
+        public Builder zBy(float value) {
+            return property(ViewProperties.Z, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#rotation(float...)
+         */
+        public Builder rotation(float... values) {
+            return property(ViewProperties.ROTATION, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#rotationBy(float)
+         */
+        public Builder rotationBy(float value) {
+            return property(ViewProperties.ROTATION, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#rotationX(float...)
+         */
+        public Builder rotationX(float... values) {
+            return property(ViewProperties.ROTATION_X, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#rotationXBy(float)
+         */
+        public Builder rotationXBy(float value) {
+            return property(ViewProperties.ROTATION_X, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#rotationY(float...)
+         */
+        public Builder rotationY(float... values) {
+            return property(ViewProperties.ROTATION_Y, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#rotationYBy(float)
+         */
+        public Builder rotationYBy(float value) {
+            return property(ViewProperties.ROTATION_Y, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#translationX(float...)
+         */
+        public Builder translationX(float... values) {
+            return property(ViewProperties.TRANSLATION_X, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#translationXBy(float)
+         */
+        public Builder translationXBy(float value) {
+            return property(ViewProperties.TRANSLATION_X, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#translationY(float...)
+         */
+        public Builder translationY(float... values) {
+            return property(ViewProperties.TRANSLATION_Y, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#translationYBy(float)
+         */
+        public Builder translationYBy(float value) {
+            return property(ViewProperties.TRANSLATION_Y, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#translationZ(float...)
+         */
+        public Builder translationZ(float... values) {
+            return property(ViewProperties.TRANSLATION_Z, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#translationZBy(float)
+         */
+        public Builder translationZBy(float value) {
+            return property(ViewProperties.TRANSLATION_Z, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#scaleX(float...)
+         */
+        public Builder scaleX(float... values) {
+            return property(ViewProperties.SCALE_X, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#scaleXBy(float)
+         */
+        public Builder scaleXBy(float value) {
+            return property(ViewProperties.SCALE_X, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#scaleY(float...)
+         */
+        public Builder scaleY(float... values) {
+            return property(ViewProperties.SCALE_Y, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#scaleYBy(float)
+         */
+        public Builder scaleYBy(float value) {
+            return property(ViewProperties.SCALE_Y, true, value);
+        }
+
+        /**
+         * @see ChainableViewAnimator#alpha(float...)
+         */
+        public Builder alpha(float... values) {
+            return property(ViewProperties.ALPHA, false, values);
+        }
+
+        /**
+         * @see ChainableViewAnimator#alphaBy(float)
+         */
+        public Builder alphaBy(float value) {
+            return property(ViewProperties.ALPHA, true, value);
+        }
+
+        /**
+         * @return the immutable {@link ChainSpec}
+         */
+        public ChainSpec build() {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("A spec requires at least one step, call with() first");
+            }
+            return new ChainSpec(this);
+        }
+
+        Builder property(int property, boolean relative, float... values) {
+            if (values == null || values.length == 0) {
+                throw new IllegalArgumentException("Require at least one value to animate to");
+            }
+            StepBuilder step = current();
+            step.properties.add(property);
+            step.relative.add(relative);
+            step.values.add(values.clone());
+            return this;
+        }
+
+        private StepBuilder current() {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("No views to animate, call with() first");
+            }
+            return steps.get(steps.size() - 1);
+        }
+    }
+}
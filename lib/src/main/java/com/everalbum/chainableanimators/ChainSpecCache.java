@@ -0,0 +1,111 @@
+package com.everalbum.chainableanimators;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.LruCache;
+
+/**
+ * Bounded LRU cache of parsed {@link ChainSpec}s, so that each declarative spec is only parsed once.
+ * Specs are keyed by raw resource id along with the configuration it is resolved for, since
+ * alternative resources such as <code>raw-land</code> share the id, or by the JSON string itself.
+ * Binding a cached spec to views never parses it again. The cache is thread-safe.
+ */
+public class ChainSpecCache {
+    private final LruCache<Object, ChainSpec> cache;
+
+    /**
+     * @param maxSize maximum number of parsed specs to keep
+     */
+    public ChainSpecCache(int maxSize) {
+        cache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Returns the spec stored in the given raw resource, parsing it if it isn't cached yet.
+     * @param context context used to read the resource and resolve view id names
+     * @param rawResId id of a raw resource containing a JSON spec
+     * @return the parsed {@link ChainSpec}
+     */
+    public ChainSpec get(Context context, int rawResId) {
+        Configuration configuration = context.getResources().getConfiguration();
+        ChainSpec spec = cache.get(new ResourceKey(rawResId, configuration));
+        if (spec == null) {
+            spec = ChainSpecParser.parse(context, rawResId);
+            // the configuration of the context may change later on
+            cache.put(new ResourceKey(rawResId, new Configuration(configuration)), spec);
+        }
+        return spec;
+    }
+
+    /**
+     * Returns the spec described by the given JSON, parsing it if it isn't cached yet.
+     * @param context context used to resolve view id names
+     * @param json JSON spec
+     * @return the parsed {@link ChainSpec}
+     */
+    public ChainSpec get(Context context, String json) {
+        ChainSpec spec = cache.get(json);
+        if (spec == null) {
+            spec = ChainSpecParser.parse(context, json);
+            cache.put(json, spec);
+        }
+        return spec;
+    }
+
+    /**
+     * @return the number of lookups that returned an already parsed spec
+     */
+    public int hitCount() {
+        return cache.hitCount();
+    }
+
+    /**
+     * @return the number of lookups that required parsing a spec
+     */
+    public int missCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * @return the fraction of lookups that returned an already parsed spec, or 0 if there were none
+     */
+    public float hitRate() {
+        int hits = cache.hitCount();
+        int lookups = hits + cache.missCount();
+        return lookups == 0 ? 0 : hits / (float) lookups;
+    }
+
+    /**
+     * Removes all parsed specs from the cache.
+     */
+    public void evictAll() {
+        cache.evictAll();
+    }
+
+    /**
+     * Key of a spec stored in a raw resource, as resolved for a configuration.
+     */
+    static final class ResourceKey {
+        private final int           rawResId;
+        private final Configuration configuration;
+
+        ResourceKey(int rawResId, Configuration configuration) {
+            this.rawResId = rawResId;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ResourceKey)) {
+                return false;
+            }
+            ResourceKey other = (ResourceKey) o;
+            return rawResId == other.rawResId && configuration.equals(other.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rawResId + configuration.hashCode();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.support.v4.view.animation.FastOutLinearInInterpolator;
+import android.support.v4.view.animation.FastOutSlowInInterpolator;
+import android.support.v4.view.animation.LinearOutSlowInInterpolator;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AccelerateInterpolator;
+import android.view.animation.AnticipateInterpolator;
+import android.view.animation.AnticipateOvershootInterpolator;
+import android.view.animation.BounceInterpolator;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.OvershootInterpolator;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Parses a declarative JSON description of an animation chain into an immutable {@link ChainSpec}:
+ * <pre>
+ * {
+ *   "duration": 600,
+ *   "steps": [
+ *     { "views": ["title", "subtitle"], "alpha": [0, 1], "translationY": [50, 0] },
+ *     { "views": ["button"], "startDelay": 100, "interpolator": "overshoot", "scaleX": [0, 1] },
+ *     { "views": ["icon"], "parallel": true, "rotationBy": 360, "repeat": "infinite" }
+ *   ]
+ * }
+ * </pre>
+ * Views are referenced by id name (or by numeric id). Steps are played in series, unless they are
+ * marked <code>parallel</code>, in which case they play with the previous step. The first step
+ * can't be marked <code>parallel</code>. Every step accepts <code>duration</code>,
+ * <code>startDelay</code>, <code>interpolator</code>, <code>repeat</code> (a count or
+ * <code>"infinite"</code>) and <code>repeatMode</code> (<code>"restart"</code> or
+ * <code>"reverse"</code>), as well as any property of {@link ChainableViewAnimator} and its
+ * <code>By</code> counterpart. The same timing keys at the top level apply to the entire chain, as
+ * does <code>interpolatorSamples</code>.
+ * <p>
+ * Parsing can be done on any thread. Use {@link ChainSpecCache} to only parse each spec once.
+ */
+public final class ChainSpecParser {
+    private static final Map<String, Integer> PROPERTIES = new HashMap<>();
+
+    static {
+        PROPERTIES.put("x", ViewProperties.X);
+        PROPERTIES.put("y", ViewProperties.Y);
+        PROPERTIES.put("z", ViewProperties.Z);
+        PROPERTIES.put("rotation", ViewProperties.ROTATION);
+        PROPERTIES.put("rotationX", ViewProperties.ROTATION_X);
+        PROPERTIES.put("rotationY", ViewProperties.ROTATION_Y);
+        PROPERTIES.put("translationX", ViewProperties.TRANSLATION_X);
+        PROPERTIES.put("translationY", ViewProperties.TRANSLATION_Y);
+        PROPERTIES.put("translationZ", ViewProperties.TRANSLATION_Z);
+        PROPERTIES.put("scaleX", ViewProperties.SCALE_X);
+        PROPERTIES.put("scaleY", ViewProperties.SCALE_Y);
+        PROPERTIES.put("alpha", ViewProperties.ALPHA);
+    }
+
+    private ChainSpecParser() {
+    }
+
+    /**
+     * Parses the JSON spec stored in the given raw resource.
+     * @param context context used to read the resource and resolve view id names
+     * @param rawResId id of a raw resource containing a JSON spec
+     * @return the parsed {@link ChainSpec}
+     */
+    public static ChainSpec parse(Context context, int rawResId) {
+        InputStream in = context.getResources().openRawResource(rawResId);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return parse(context, out.toString("UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to read spec resource " + rawResId, e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Parses the given JSON spec.
+     * @param context context used to resolve view id names
+     * @param json JSON spec
+     * @return the parsed {@link ChainSpec}
+     */
+    public static ChainSpec parse(Context context, String json) {
+        try {
+            JSONObject root = new JSONObject(json);
+            ChainSpec.Builder builder = new ChainSpec.Builder();
+            JSONArray steps = root.getJSONArray("steps");
+            for (int i = 0; i < steps.length(); ++i) {
+                parseStep(context, builder, steps.getJSONObject(i), i == 0);
+            }
+            if (root.has("duration")) {
+                builder.setOverallDuration(root.optLong("duration", -1));
+            }
+            if (root.has("startDelay")) {
+                builder.setOverallStartDelay(root.optLong("startDelay", -1));
+            }
+            if (root.has("interpolator")) {
+                builder.setOverallInterpolator(interpolator(root.optString("interpolator", null)));
+            }
+            if (root.has("interpolatorSamples")) {
+                builder.setInterpolatorSampleCount(root.getInt("interpolatorSamples"));
+            }
+            if (root.has("repeat")) {
+                int count = repeatCount(root.get("repeat"));
+                if (count == ValueAnimator.INFINITE) {
+                    builder.overallRepeatForever();
+                } else {
+                    builder.overallRepeat(count);
+                }
+            }
+            if (root.has("repeatMode")) {
+                builder.overallRepeatMode(repeatMode(root.optString("repeatMode", null)));
+            }
+            return builder.build();
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid chain spec: " + e.getMessage(), e);
+        }
+    }
+
+    private static void parseStep(Context context, ChainSpec.Builder builder, JSONObject step, boolean first)
+            throws JSONException {
+        int[] viewIds = viewIds(context, step.getJSONArray("views"));
+        if (first) {
+            if (step.has("parallel")) {
+                throw new IllegalArgumentException("The first step of a chain spec can't be parallel");
+            }
+            builder.with(viewIds);
+        } else if (step.optBoolean("parallel")) {
+            builder.inParallelWith(viewIds);
+        } else {
+            builder.then(viewIds);
+        }
+        Iterator<String> keys = step.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            switch (key) {
+                case "views":
+                case "parallel":
+                    break;
+                case "duration":
+                    builder.setDuration(step.optLong(key, -1));
+                    break;
+                case "startDelay":
+                    builder.setStartDelay(step.optLong(key, -1));
+                    break;
+                case "interpolator":
+                    builder.setInterpolator(interpolator(step.optString(key, null)));
+                    break;
+                case "repeat":
+                    int count = repeatCount(step.get(key));
+                    if (count == ValueAnimator.INFINITE) {
+                        builder.repeatForever();
+                    } else {
+                        builder.repeat(count);
+                    }
+                    break;
+                case "repeatMode":
+                    builder.repeatMode(repeatMode(step.optString(key, null)));
+                    break;
+                default:
+                    boolean by = key.endsWith("By");
+                    Integer property = PROPERTIES.get(by ? key.substring(0, key.length() - 2) : key);
+                    if (property == null) {
+                        throw new IllegalArgumentException("Unknown key in chain spec: " + key);
+                    }
+                    builder.property(property, by, values(step.get(key)));
+                    break;
+            }
+        }
+    }
+
+    private static int[] viewIds(Context context, JSONArray views) throws JSONException {
+        int[] ids = new int[views.length()];
+        for (int i = 0; i < ids.length; ++i) {
+            Object view = views.get(i);
+            if (view instanceof Number) {
+                ids[i] = ((Number) view).intValue();
+            } else {
+                ids[i] = context.getResources().getIdentifier(view.toString(), "id", context.getPackageName());
+                if (ids[i] == 0) {
+                    throw new IllegalArgumentException("Unknown view id in chain spec: " + view);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static float[] values(Object value) throws JSONException {
+        if (value instanceof Number) {
+            return new float[]{((Number) value).floatValue()};
+        }
+        if (!(value instanceof JSONArray)) {
+            throw new IllegalArgumentException("Expected a number or an array of numbers: " + value);
+        }
+        JSONArray array = (JSONArray) value;
+        float[] values = new float[array.length()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = (float) array.getDouble(i);
+        }
+        return values;
+    }
+
+    private static int repeatCount(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        if ("infinite".equals(value)) {
+            return ValueAnimator.INFINITE;
+        }
+        throw new IllegalArgumentException("Unknown repeat count in chain spec: " + value);
+    }
+
+    private static int repeatMode(String mode) {
+        if ("restart".equals(mode)) {
+            return ChainableAnimator.RESTART;
+        }
+        if ("reverse".equals(mode)) {
+            return ChainableAnimator.REVERSE;
+        }
+        throw new IllegalArgumentException("Unknown repeat mode in chain spec: " + mode);
+    }
+
+    private static TimeInterpolator interpolator(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Missing interpolator name in chain spec");
+        }
+        switch (name) {
+            case "linear":
+                return new LinearInterpolator();
+            case "accelerate":
+                return new AccelerateInterpolator();
+            case "decelerate":
+                return new DecelerateInterpolator();
+            case "accelerate_decelerate":
+                return new AccelerateDecelerateInterpolator();
+            case "anticipate":
+                return new AnticipateInterpolator();
+            case "overshoot":
+                return new OvershootInterpolator();
+            case "anticipate_overshoot":
+                return new AnticipateOvershootInterpolator();
+            case "bounce":
+                return new BounceInterpolator();
+            case "fast_out_slow_in":
+                return new FastOutSlowInInterpolator();
+            case "fast_out_linear_in":
+                return new FastOutLinearInInterpolator();
+            case "linear_out_slow_in":
+                return new LinearOutSlowInInterpolator();
+            default:
+                throw new IllegalArgumentException("Unknown interpolator in chain spec: " + name);
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of an animation chain, laid out on an absolute timeline so that its position can
+ * be set directly (e.g. from a scroll offset or a drag gesture) instead of being played:
+ * <pre>
+ *     ChainTimeline timeline = ChainableAnimator.with(toolbar)
+ *                                               .alpha(1, 0)
+ *                                               .then(title)
+ *                                               .translationY(0, -100)
+ *                                               .timeline();
+ *     timeline.setProgress(scrollOffset / (float) maxScrollOffset);
+ * </pre>
+ * Seeking only evaluates the animations overlapping the requested time, which are found through
+ * an interval index in O(log n + active). Animations whose start or end was crossed since the
+ * previous seek are snapped to their start or end values. Lifecycle hooks are not run while seeking.
+ * <p>
+ * Animations starting from the current value of a property read it the first time the timeline is
+ * set, wherever it is set to: every animation is played through once, in chain order, so each one
+ * starts from the value left by the animations before it, as it would when the chain plays.
+ * Layout changes are the exception: they are only run once the timeline is set past the start of
+ * their step.
+ * <p>
+ * {@link AnimatorSet}s supplied to the chain can only be seeked from Android O on. Before that,
+ * setting the timeline leaves them where they are.
+ */
+public final class ChainTimeline {
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private final Animator[] leaves;
+    private final Map<Animator, Boolean> deferred;
+    private final long[]     starts;
+    private final long[]     ends;
+    private final long       duration;
+
+    // interval index: leaves ordered by start (with subtree max ends) and ordered by end
+    private final int[]  byStart;
+    private final long[] sortedStarts;
+    private final long[] maxEnds;
+    private final int[]  byEnd;
+    private final long[] sortedEnds;
+
+    // steps of the chain in chain order, used to run lifecycle hooks when driven by a player
+    private final ChainableAnimator[] steps;
+    private final long[]              stepStarts;
+    private final long[]              stepEnds;
+    private final long[]              boundaries;
+
+    // whether every animation of the chain can be seeked on this api level
+    final boolean isSeekable;
+
+    private long playTime = -1;
+    boolean dispatchHooks;
+
+    ChainTimeline(ChainableAnimator chain) {
+        Compiler compiler = new Compiler(chain.state);
+        deferred = chain.state.deferred;
+        long overallDuration = -1;
+        if (chain.chainedAnimators != null) {
+            overallDuration = chain.chainedAnimators.getDuration();
+        }
+        long time = 0;
+        for (AnimatorSet set : chain.state.animatorSets) {
+            time = compiler.add(set, time, overallDuration, chain.overallInterpolator);
+        }
+        int count = compiler.leaves.size();
+        leaves = compiler.leaves.toArray(new Animator[count]);
+        starts = toArray(compiler.starts);
+        ends = toArray(compiler.ends);
+        duration = time;
+        boolean seekable = true;
+        for (Animator leaf : leaves) {
+            seekable &= isSeekable(leaf);
+        }
+        isSeekable = seekable;
+
+        byStart = sortedIndices(starts);
+        sortedStarts = new long[count];
+        for (int i = 0; i < count; ++i) {
+            sortedStarts[i] = starts[byStart[i]];
+        }
+        maxEnds = new long[count];
+        buildMaxEnds(0, count - 1);
+        byEnd = sortedIndices(ends);
+        sortedEnds = new long[count];
+        for (int i = 0; i < count; ++i) {
+            sortedEnds[i] = ends[byEnd[i]];
+        }
+
+        int stepCount = compiler.steps.size();
+        steps = compiler.steps.toArray(new ChainableAnimator[stepCount]);
+        stepStarts = toArray(compiler.stepStarts);
+        stepEnds = toArray(compiler.stepEnds);
+        long[] allBoundaries = new long[stepCount * 2];
+        System.arraycopy(stepStarts, 0, allBoundaries, 0, stepCount);
+        System.arraycopy(stepEnds, 0, allBoundaries, stepCount, stepCount);
+        Arrays.sort(allBoundaries);
+        boundaries = allBoundaries;
+    }
+
+    /**
+     * @return the total duration of the chain in ms, excluding the overall start delay
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the current position of the timeline in ms, or -1 if it has not been set yet
+     */
+    public long getPlayTime() {
+        return playTime;
+    }
+
+    /**
+     * Sets the position of the timeline as a fraction of its total duration.
+     * @param progress position between 0 and 1
+     */
+    public void setProgress(float progress) {
+        if (duration >= INFINITE) {
+            throw new IllegalStateException("Cannot set the progress of an infinite timeline.");
+        }
+        setPlayTime(Math.round(progress * duration));
+    }
+
+    /**
+     * Sets the position of the timeline, updating every animation that overlaps it.
+     * @param playTime position in ms, between 0 and {@link #getDuration()}
+     */
+    public void setPlayTime(long playTime) {
+        long time = Math.max(0, Math.min(playTime, duration));
+        long previous = this.playTime;
+        this.playTime = time;
+        if (previous < 0) {
+            resolveStartValues();
+            // first seek: settle every animation that isn't active
+            for (int i = byStart.length - 1; i >= 0 && sortedStarts[i] > time; --i) {
+                seekToStart(byStart[i]);
+            }
+            for (int i = 0; i < byEnd.length && sortedEnds[i] <= time; ++i) {
+                seekToEnd(byEnd[i]);
+            }
+        } else if (time > previous) {
+            for (int i = firstGreaterThan(sortedEnds, previous); i < byEnd.length && sortedEnds[i] <= time; ++i) {
+                seekToEnd(byEnd[i]);
+            }
+        } else if (time < previous) {
+            int first = firstGreaterThan(sortedStarts, time);
+            for (int i = firstGreaterThan(sortedStarts, previous) - 1; i >= first; --i) {
+                seekToStart(byStart[i]);
+            }
+        }
+        seekActive(0, byStart.length - 1, time);
+        if (dispatchHooks && previous >= 0 && time != previous) {
+            dispatchCrossed(previous, time);
+        }
+    }
+
+    /**
+     * Plays every animation from its start to its end in chain order, so that the animations that
+     * start from the current value of a property read the value left by the ones before them,
+     * rather than the value before the chain.
+     */
+    private void resolveStartValues() {
+        for (int i = 0; i < byStart.length; ++i) {
+            int leaf = byStart[i];
+            if (isDeferred(leaves[leaf])) {
+                continue;
+            }
+            seekToStart(leaf);
+            if (ends[leaf] < INFINITE) {
+                seekToEnd(leaf);
+            }
+        }
+    }
+
+    /**
+     * @return whether the animation, or one of the animations it seeks, has side effects such as
+     * changing a layout, and must only be seeked once the timeline reaches it
+     */
+    private boolean isDeferred(Animator leaf) {
+        if (deferred.isEmpty()) {
+            return false;
+        }
+        if (leaf instanceof StepRepeater) {
+            for (Animator child : ((StepRepeater) leaf).children) {
+                if (deferred.containsKey(child)) {
+                    return true;
+                }
+            }
+        }
+        return deferred.containsKey(leaf);
+    }
+
+    /**
+     * Runs the start hooks of the steps that are entered when playback begins at the given position.
+     * When playing backward, the end of a step is where it is entered.
+     */
+    void dispatchBegin(long position, boolean forward) {
+        for (int i = 0; i < steps.length; ++i) {
+            int s = forward ? i : steps.length - 1 - i;
+            long start = stepStarts[s], end = stepEnds[s];
+            if (forward ? (start <= position && position < end) : (start < position && position <= end)) {
+                steps[s].dispatchStepStart();
+            } else if (start == position && end == position) {
+                steps[s].dispatchStepStart();
+                steps[s].dispatchStepEnd();
+            }
+        }
+    }
+
+    /**
+     * Runs the start and end hooks of the steps that playback would have played through entirely
+     * before reaching the given position, in the order it would have entered them.
+     */
+    void dispatchSkipped(long position, boolean forward) {
+        for (int i = 0; i < steps.length; ++i) {
+            int s = forward ? i : steps.length - 1 - i;
+            long start = stepStarts[s], end = stepEnds[s];
+            if (forward ? (start < position && end <= position) : (position <= start && position < end)) {
+                steps[s].dispatchStepStart();
+                steps[s].dispatchStepEnd();
+            }
+        }
+    }
+
+    /**
+     * Runs the cancel hooks of the steps overlapping the current position.
+     */
+    void dispatchCancel() {
+        for (int s = 0; s < steps.length; ++s) {
+            if (stepStarts[s] <= playTime && playTime <= stepEnds[s]) {
+                steps[s].dispatchStepCancel();
+            }
+        }
+    }
+
+    /**
+     * Reads the position a chain played through its sets has reached, rather than the position of
+     * this timeline: the end of the last step that ended, or further if an animator is still
+     * running. Running animators are read through {@link ValueAnimator#getCurrentPlayTime()}, which
+     * doesn't count frames that haven't run yet or time spent paused, and accounts for the
+     * animator duration scale from Android O.
+     */
+    long getPlayedPosition() {
+        long position = 0;
+        for (int s = 0; s < steps.length; ++s) {
+            HookListener hooks = steps[s].hooks;
+            if (hooks.hasEnded) {
+                position = Math.max(position, stepEnds[s]);
+            } else if (hooks.hasStarted) {
+                position = Math.max(position, stepStarts[s]);
+            }
+        }
+        for (int i = 0; i < leaves.length; ++i) {
+            // not running while in its start delay
+            if (leaves[i] instanceof ValueAnimator && leaves[i].isRunning()) {
+                long time = starts[i] + Math.max(0, ((ValueAnimator) leaves[i]).getCurrentPlayTime());
+                position = Math.max(position, Math.min(time, ends[i]));
+            }
+        }
+        return Math.min(position, duration);
+    }
+
+    int getStepCount() {
+        return steps.length;
+    }
+
+    /**
+     * @return index of the last step, in chain order, that starts at or before the given position
+     */
+    int getStepIndex(long position) {
+        int index = 0;
+        for (int s = 0; s < steps.length; ++s) {
+            if (stepStarts[s] <= position) {
+                index = s;
+            }
+        }
+        return index;
+    }
+
+    ChainableAnimator getStep(int index) {
+        return steps[index];
+    }
+
+    long getStepStart(int index) {
+        return stepStarts[index];
+    }
+
+    long getStepEnd(int index) {
+        return stepEnds[index];
+    }
+
+    private void dispatchCrossed(long previous, long time) {
+        boolean forward = time > previous;
+        // only walk the steps if a step boundary was actually crossed
+        int next = forward ? firstGreaterThan(boundaries, previous) : firstGreaterThan(boundaries, time - 1);
+        if (next == boundaries.length || (forward ? boundaries[next] > time : boundaries[next] >= previous)) {
+            return;
+        }
+        if (forward) {
+            for (int s = 0; s < steps.length; ++s) {
+                if (previous < stepStarts[s] && stepStarts[s] <= time) {
+                    steps[s].dispatchStepStart();
+                }
+                if (previous < stepEnds[s] && stepEnds[s] <= time) {
+                    steps[s].dispatchStepEnd();
+                }
+            }
+        } else {
+            // mirrored: steps are entered at their end and left at their start, last step first
+            for (int s = steps.length - 1; s >= 0; --s) {
+                if (time <= stepEnds[s] && stepEnds[s] < previous) {
+                    steps[s].dispatchStepStart();
+                }
+                if (time <= stepStarts[s] && stepStarts[s] < previous) {
+                    steps[s].dispatchStepEnd();
+                }
+            }
+        }
+    }
+
+    private void seekActive(int lo, int hi, long time) {
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnds[mid] <= time) {
+                return;
+            }
+            seekActive(lo, mid - 1, time);
+            if (sortedStarts[mid] > time) {
+                return;
+            }
+            int leaf = byStart[mid];
+            if (time < ends[leaf]) {
+                seek(leaf, time - starts[leaf]);
+            }
+            lo = mid + 1;
+        }
+    }
+
+    private void seekToStart(int leaf) {
+        seek(leaf, 0);
+    }
+
+    private void seekToEnd(int leaf) {
+        seek(leaf, ends[leaf] - starts[leaf]);
+    }
+
+    private void seek(int leaf, long localTime) {
+        seek(leaves[leaf], localTime);
+    }
+
+    /**
+     * @return whether the animation can be seeked on this api level, along with the animations it
+     * repeats
+     */
+    static boolean isSeekable(Animator a) {
+        if (a instanceof StepRepeater) {
+            for (Animator child : ((StepRepeater) a).children) {
+                if (!isSeekable(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return a instanceof ValueAnimator || Build.VERSION.SDK_INT >= Build.VERSION_CODES.O;
+    }
+
+    /**
+     * Sets the position of a single animation, if it can be seeked on this api level.
+     */
+    static void seek(Animator a, long localTime) {
+        if (a instanceof ValueAnimator) {
+            ((ValueAnimator) a).setCurrentPlayTime(localTime);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && a instanceof AnimatorSet) {
+            ((AnimatorSet) a).setCurrentPlayTime(localTime);
+        }
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[byStart[mid]],
+                            Math.max(buildMaxEnds(lo, mid - 1), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = max;
+        return max;
+    }
+
+    private static int firstGreaterThan(long[] sorted, long value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int[] sortedIndices(final long[] keys) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                long ka = keys[a], kb = keys[b];
+                return ka < kb ? -1 : (ka == kb ? a.compareTo(b) : 1);
+            }
+        });
+        int[] indices = new int[order.length];
+        for (int i = 0; i < order.length; ++i) {
+            indices[i] = order[i];
+        }
+        return indices;
+    }
+
+    private static long[] toArray(List<Long> list) {
+        long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Walks the sets built by the chain. Sets owned by the chain always play their children together,
+     * any other animator (including user supplied sets) is treated as a single leaf.
+     */
+    private static class Compiler {
+        final List<Animator>                   leaves     = new ArrayList<>();
+        final List<Long>                       starts     = new ArrayList<>();
+        final List<Long>                       ends       = new ArrayList<>();
+        final List<ChainableAnimator>          steps      = new ArrayList<>();
+        final List<Long>                       stepStarts = new ArrayList<>();
+        final List<Long>                       stepEnds   = new ArrayList<>();
+        final Map<Animator, ChainableAnimator> stepSets   = new IdentityHashMap<>();
+        final Map<Animator, Boolean>           owned      = new IdentityHashMap<>();
+
+        Compiler(ChainableAnimator.State state) {
+            for (ChainableAnimator step : state.steps) {
+                stepSets.put(step.currentAnimator, step);
+                owned.put(step.currentAnimator, Boolean.TRUE);
+            }
+            for (AnimatorSet set : state.animatorSets) {
+                owned.put(set, Boolean.TRUE);
+            }
+        }
+
+        /**
+         * @return the end time of the given animator
+         */
+        long add(Animator a, long start, long durationOverride, TimeInterpolator interpolatorOverride) {
+            long duration = durationOverride >= 0 ? durationOverride : a.getDuration();
+            if (owned.containsKey(a)) {
+                TimeInterpolator interpolator = interpolatorOverride;
+                ChainableAnimator step = stepSets.get(a);
+                if (interpolator == null && step != null) {
+                    interpolator = step.interpolator;
+                }
+                long childStart = start + a.getStartDelay();
+                int stepIndex = -1;
+                if (step != null) {
+                    stepIndex = steps.size();
+                    steps.add(step);
+                    stepStarts.add(childStart);
+                    stepEnds.add(childStart);
+                }
+                long end = childStart;
+                for (Animator child : ((AnimatorSet) a).getChildAnimations()) {
+                    end = Math.max(end, add(child, childStart, duration, interpolator));
+                }
+                if (stepIndex >= 0) {
+                    stepEnds.set(stepIndex, end);
+                }
+                return end;
+            }
+            // mirror what AnimatorSet does to its children when it starts
+            if (durationOverride >= 0) {
+                a.setDuration(durationOverride);
+            }
+            if (interpolatorOverride != null) {
+                a.setInterpolator(interpolatorOverride);
+            }
+            long length;
+            if (a instanceof ValueAnimator) {
+                ValueAnimator animator = (ValueAnimator) a;
+                // a step repeater lasts longer than the duration given to its animations
+                duration = a.getDuration();
+                start += a.getStartDelay();
+                if (animator.getRepeatCount() == ValueAnimator.INFINITE) {
+                    length = INFINITE;
+                } else {
+                    length = Math.max(duration, 0) * (animator.getRepeatCount() + 1);
+                }
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                length = a.getTotalDuration();
+                if (length < 0) {
+                    length = INFINITE;
+                }
+            } else {
+                length = a.getStartDelay() + Math.max(duration, 0);
+            }
+            long end = Math.min(start + length, INFINITE);
+            leaves.add(a);
+            starts.add(start);
+            ends.add(end);
+            return end;
+        }
+    }
+}
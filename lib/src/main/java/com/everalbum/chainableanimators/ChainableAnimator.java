@@ -1,14 +1,16 @@
 package com.everalbum.chainableanimators;
 
 import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.animation.TimeInterpolator;
-import android.os.Handler;
+import android.animation.ValueAnimator;
+import android.util.Log;
 import android.view.View;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Allows chaining of multiple complex animations using a fluent-api:
@@ -25,22 +27,110 @@ import java.util.List;
                          .start();
  * </pre>
  */
-public class ChainableAnimator implements Cancellable {
+public class ChainableAnimator implements ChainPlayback {
+    /**
+     * When repeating, starts each iteration from the beginning.
+     */
+    public static final int RESTART = ValueAnimator.RESTART;
+    /**
+     * When repeating, alternates between playing forward and backward.
+     */
+    public static final int REVERSE = ValueAnimator.REVERSE;
+
     AnimatorSet chainedAnimators;
+    TimeInterpolator overallInterpolator;
+    int overallRepeatCount;
+    int overallRepeatMode = RESTART;
+    HookListener overallHooks;
+    TimelinePlayer player;
     final AnimatorSet currentAnimator;
+    final List<Animator> animators = new ArrayList<>();
+    final HookListener hooks;
+    TimeInterpolator interpolator;
+    int repeatCount;
+    int repeatMode = RESTART;
+    // steps played in parallel with this one, or null if it is played in series
+    ParallelGroup group;
     final State state;
     boolean isCancelled;
 
     ChainableAnimator(State state) {
         this.state = state;
         currentAnimator = new AnimatorSet();
-        currentAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                super.onAnimationCancel(animation);
-                cancel();
-            }
-        });
+        state.steps.add(this);
+        hooks = new HookListener(this, true);
+        currentAnimator.addListener(hooks);
+    }
+
+    /**
+     * Adds the animator to the current set of animations.
+     */
+    void play(Animator a) {
+        checkNotBuilt();
+        animators.add(a);
+    }
+
+    /**
+     * Adds an animator created by the chain itself to the current set of animations. Unlike the
+     * animators supplied by the user, it may be rewired when the chain is assembled.
+     */
+    void playOwned(Animator a) {
+        checkNotBuilt();
+        animators.add(a);
+        state.owned.put(a, Boolean.TRUE);
+    }
+
+    /**
+     * Plays the animations of the current step together in {@link #currentAnimator}, once no more
+     * animations can be added to it. A repeated step is played through a {@link StepRepeater}, so
+     * its animations repeat together.
+     */
+    void seal() {
+        if (animators.isEmpty()) {
+            return;
+        }
+        if (repeatCount != 0) {
+            StepRepeater repeater = new StepRepeater(animators, repeatCount, repeatMode);
+            state.owned.put(repeater, Boolean.TRUE);
+            currentAnimator.play(repeater);
+        } else {
+            currentAnimator.playTogether(animators);
+        }
+    }
+
+    /**
+     * Ends the current step, adding its set, or the set of the parallel group it ends, to the chain.
+     */
+    void endStep() {
+        checkNotBuilt();
+        seal();
+        state.addSet(group != null ? group.close(this) : currentAnimator);
+    }
+
+    /**
+     * Throws if the chain was already built, since steps and animations added to it from then on
+     * would never be played.
+     */
+    private void checkNotBuilt() {
+        if (state.isBuilt) {
+            throw new IllegalStateException("The chain can't be changed once it is built, e.g. by describe(), "
+                    + "getAnimatorCount(), timeline() or start().");
+        }
+    }
+
+    /**
+     * Adds the current step to a parallel group, and has the given step join the same group.
+     * @return the given step
+     */
+    <S extends ChainableAnimator> S joinGroup(S next) {
+        checkNotBuilt();
+        seal();
+        if (group == null) {
+            group = new ParallelGroup();
+        }
+        group.add(currentAnimator);
+        next.group = group;
+        return next;
     }
 
     /**
@@ -50,7 +140,7 @@ public class ChainableAnimator implements Cancellable {
      */
     public static ChainableAnimator with(Animator a) {
         ChainableAnimator c = new ChainableAnimator(new State());
-        c.currentAnimator.play(a);
+        c.play(a);
         return c;
     }
 
@@ -65,6 +155,29 @@ public class ChainableAnimator implements Cancellable {
         return new ChainableViewAnimator(new State(), v);
     }
 
+    /**
+     * Starts an animation chain with the provided slots, for items drawn by a single host view.
+     * @param slots float slots of the items to start an animation chain with
+     * @return an instance of {@link ChainableSlotAnimator} which allows the slots to be animated
+     */
+    public static ChainableSlotAnimator with(FloatSlots slots) {
+        return new ChainableSlotAnimator(new State(), slots);
+    }
+
+    /**
+     * Starts an animation chain with the provided object, animated through the given setter.
+     * @param target object to start an animation chain with
+     * @param setter setter to animate the object with
+     * @param values two or more values to animate between, evenly spaced over the step
+     * @param <T> type of the object
+     * @return an instance of {@link ChainableTargetAnimator} which allows more setters of the
+     * object to be animated
+     */
+    public static <T> ChainableTargetAnimator<T> with(T target, FloatSetter<? super T> setter, float... values) {
+        ChainableTargetAnimator.checkSetter(setter, values);
+        return new ChainableTargetAnimator<>(new State(), target).animate(setter, values);
+    }
+
     /**
      * Adds the provided views to be played in series, after the current animation finishes. Note that
      * if multiple views are provided, they will be added to the animation chain collectively (in
@@ -73,7 +186,7 @@ public class ChainableAnimator implements Cancellable {
      * @return an instance of {@link ChainableAnimator}
      */
     public ChainableViewAnimator then(View... v) {
-        state.addSet(currentAnimator);
+        endStep();
         return new ChainableViewAnimator(this.state, v);
     }
 
@@ -83,7 +196,53 @@ public class ChainableAnimator implements Cancellable {
      * @return an instance of {@link ChainableAnimator}
      */
     public ChainableViewAnimator inParallelWith(View... v) {
-        return new ParallelChainableViewAnimator(currentAnimator, this.state, v);
+        return joinGroup(new ChainableViewAnimator(this.state, v));
+    }
+
+    /**
+     * Adds the provided slots to be played in series, after the current animation finishes.
+     * @param slots float slots of the items to play in series
+     * @return an instance of {@link ChainableSlotAnimator}
+     */
+    public ChainableSlotAnimator then(FloatSlots slots) {
+        endStep();
+        return new ChainableSlotAnimator(this.state, slots);
+    }
+
+    /**
+     * Adds the provided slots to be played in parallel, with the current animation.
+     * @param slots float slots of the items to play in parallel
+     * @return an instance of {@link ChainableSlotAnimator}
+     */
+    public ChainableSlotAnimator inParallelWith(FloatSlots slots) {
+        return joinGroup(new ChainableSlotAnimator(this.state, slots));
+    }
+
+    /**
+     * Adds the provided object to be played in series, after the current animation finishes.
+     * @param target object to play in series
+     * @param setter setter to animate the object with
+     * @param values two or more values to animate between, evenly spaced over the step
+     * @param <T> type of the object
+     * @return an instance of {@link ChainableTargetAnimator}
+     */
+    public <T> ChainableTargetAnimator<T> then(T target, FloatSetter<? super T> setter, float... values) {
+        ChainableTargetAnimator.checkSetter(setter, values);
+        endStep();
+        return new ChainableTargetAnimator<>(this.state, target).animate(setter, values);
+    }
+
+    /**
+     * Adds the provided object to be played in parallel, with the current animation.
+     * @param target object to play in parallel
+     * @param setter setter to animate the object with
+     * @param values two or more values to animate between, evenly spaced over the step
+     * @param <T> type of the object
+     * @return an instance of {@link ChainableTargetAnimator}
+     */
+    public <T> ChainableTargetAnimator<T> inParallelWith(T target, FloatSetter<? super T> setter, float... values) {
+        ChainableTargetAnimator.checkSetter(setter, values);
+        return joinGroup(new ChainableTargetAnimator<>(this.state, target)).animate(setter, values);
     }
 
     /**
@@ -92,9 +251,9 @@ public class ChainableAnimator implements Cancellable {
      * @return an instance of {@link ChainableAnimator}
      */
     public ChainableAnimator then(Animator a) {
-        state.addSet(currentAnimator);
+        endStep();
         ChainableAnimator c = new ChainableAnimator(this.state);
-        c.currentAnimator.play(a);
+        c.play(a);
         return c;
     }
 
@@ -104,7 +263,9 @@ public class ChainableAnimator implements Cancellable {
      * @return an instance of {@link ChainableAnimator}
      */
     public ChainableAnimator inParallelWith(Animator a) {
-        return new ParallelChainableAnimator(currentAnimator, a, this.state);
+        ChainableAnimator c = joinGroup(new ChainableAnimator(this.state));
+        c.play(a);
+        return c;
     }
 
     /**
@@ -133,23 +294,52 @@ public class ChainableAnimator implements Cancellable {
      * @return an instance of {@link ChainableAnimator}
      */
     public ChainableAnimator setInterpolator(TimeInterpolator interpolator) {
+        this.interpolator = interpolator;
         currentAnimator.setInterpolator(interpolator);
         return this;
     }
 
+    /**
+     * Repeats the current set of animations the given number of times after it first plays. The
+     * next set of animations in the chain starts once all repetitions are done.
+     * @param count number of repetitions
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator repeat(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Repeat count must be greater than 0.");
+        }
+        repeatCount = count;
+        return this;
+    }
+
+    /**
+     * Repeats the current set of animations until the chain is cancelled. Any animations chained
+     * after it will never play.
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator repeatForever() {
+        repeatCount = ValueAnimator.INFINITE;
+        return this;
+    }
+
+    /**
+     * Sets how the current set of animations repeats
+     * @param mode {@link #RESTART} or {@link #REVERSE}
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator repeatMode(int mode) {
+        repeatMode = mode;
+        return this;
+    }
+
     /**
      * Runs the provided runnable at the start of the current set of animations
      * @param r {@link Runnable} to run at animation start
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnAnimationStart(final Runnable r) {
-        currentAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                super.onAnimationStart(animation);
-                r.run();
-            }
-        });
+    public ChainableAnimator doOnAnimationStart(Runnable r) {
+        hooks.addStartHook(r);
         return this;
     }
 
@@ -159,14 +349,8 @@ public class ChainableAnimator implements Cancellable {
      * @param r {@link Runnable} to run at animation cancel
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnAnimationCancel(final Runnable r) {
-        currentAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                super.onAnimationCancel(animation);
-                r.run();
-            }
-        });
+    public ChainableAnimator doOnAnimationCancel(Runnable r) {
+        hooks.addCancelHook(r);
         return this;
     }
 
@@ -175,16 +359,8 @@ public class ChainableAnimator implements Cancellable {
      * @param r {@link Runnable} to run at animation end
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnAnimationEnd(final Runnable r) {
-        currentAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                super.onAnimationEnd(animation);
-                if (!isCancelled()) {
-                    r.run();
-                }
-            }
-        });
+    public ChainableAnimator doOnAnimationEnd(Runnable r) {
+        hooks.addEndHook(r);
         return this;
     }
 
@@ -195,16 +371,8 @@ public class ChainableAnimator implements Cancellable {
      * @param delay delay in ms
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnAnimationEndDelayed(final Runnable r, final long delay) {
-        currentAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                super.onAnimationEnd(animation);
-                if (!isCancelled()) {
-                    state.delayHandler.postDelayed(r, delay);
-                }
-            }
-        });
+    public ChainableAnimator doOnAnimationEndDelayed(Runnable r, long delay) {
+        hooks.addDelayedEndHook(r, delay);
         return this;
     }
 
@@ -243,27 +411,72 @@ public class ChainableAnimator implements Cancellable {
         if(chainedAnimators == null) {
             chainedAnimators = new AnimatorSet();
         }
+        overallInterpolator = interpolator;
         chainedAnimators.setInterpolator(interpolator);
         return this;
     }
 
+    /**
+     * Samples the interpolators of the entire chain into lookup tables when it is built, so that
+     * expensive curves are evaluated once per frame with a table read, instead of once per animated
+     * property. This includes the easings of keyframes. Steps sharing an interpolator share its
+     * table.
+     * @param sampleCount number of intervals to sample each curve in, or 0 to evaluate the
+     * interpolators directly
+     * @return an instance of {@link ChainableAnimator}
+     * @see LookupTableInterpolator
+     */
+    public ChainableAnimator setInterpolatorSampleCount(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count must be greater than 0.");
+        }
+        state.interpolatorSamples = sampleCount;
+        return this;
+    }
+
+    /**
+     * Repeats the entire chain of animations the given number of times after it first plays. Every
+     * iteration replays the same animators, nothing is rebuilt. Before Android O, animator sets
+     * can't be replayed this way, so starting a repeated chain that plays
+     * {@link AnimatorSet}s of its own throws an {@link IllegalStateException}.
+     * @param count number of repetitions
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator overallRepeat(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Repeat count must be greater than 0.");
+        }
+        overallRepeatCount = count;
+        return this;
+    }
+
+    /**
+     * Repeats the entire chain of animations until it is cancelled.
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator overallRepeatForever() {
+        overallRepeatCount = ValueAnimator.INFINITE;
+        return this;
+    }
+
+    /**
+     * Sets how the entire chain of animations repeats
+     * @param mode {@link #RESTART} or {@link #REVERSE}
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator overallRepeatMode(int mode) {
+        overallRepeatMode = mode;
+        return this;
+    }
+
     /**
      * Runs the provided runnable at the start of the entire chain of animations. In other words,
      * when the very first animation runs.
      * @param r {@link Runnable} to run at animation start
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnOverallAnimationStart(final Runnable r) {
-        if(chainedAnimators == null) {
-            chainedAnimators = new AnimatorSet();
-        }
-        chainedAnimators.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                super.onAnimationStart(animation);
-                r.run();
-            }
-        });
+    public ChainableAnimator doOnOverallAnimationStart(Runnable r) {
+        overallHooks().addStartHook(r);
         return this;
     }
 
@@ -272,17 +485,8 @@ public class ChainableAnimator implements Cancellable {
      * @param r {@link Runnable} to run at animation cancel
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnOverallAnimationCancel(final Runnable r) {
-        if(chainedAnimators == null) {
-            chainedAnimators = new AnimatorSet();
-        }
-        chainedAnimators.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                super.onAnimationCancel(animation);
-                r.run();
-            }
-        });
+    public ChainableAnimator doOnOverallAnimationCancel(Runnable r) {
+        overallHooks().addCancelHook(r);
         return this;
     }
 
@@ -292,19 +496,20 @@ public class ChainableAnimator implements Cancellable {
      * @param r {@link Runnable} to run at animation end
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnOverallAnimationEnd(final Runnable r) {
-        if(chainedAnimators == null) {
-            chainedAnimators = new AnimatorSet();
-        }
-        chainedAnimators.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                super.onAnimationEnd(animation);
-                if (!isCancelled()) {
-                    r.run();
-                }
-            }
-        });
+    public ChainableAnimator doOnOverallAnimationEnd(Runnable r) {
+        overallHooks().addEndHook(r);
+        return this;
+    }
+
+    /**
+     * Runs the provided runnable each time the entire chain of animations repeats, as set with
+     * {@link #overallRepeat(int)}. The overall start and end hooks only run once, before the first
+     * iteration and after the last one.
+     * @param r {@link Runnable} to run at the start of every iteration but the first
+     * @return an instance of {@link ChainableAnimator}
+     */
+    public ChainableAnimator doOnOverallAnimationRepeat(Runnable r) {
+        overallHooks().addRepeatHook(r);
         return this;
     }
 
@@ -314,19 +519,8 @@ public class ChainableAnimator implements Cancellable {
      * @param delay delay in ms
      * @return an instance of {@link ChainableAnimator}
      */
-    public ChainableAnimator doOnOverallAnimationEndDelayed(final Runnable r, final long delay) {
-        if(chainedAnimators == null) {
-            chainedAnimators = new AnimatorSet();
-        }
-        chainedAnimators.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                super.onAnimationEnd(animation);
-                if (!isCancelled()) {
-                    state.delayHandler.postDelayed(r, delay);
-                }
-            }
-        });
+    public ChainableAnimator doOnOverallAnimationEndDelayed(Runnable r, long delay) {
+        overallHooks().addDelayedEndHook(r, delay);
         return this;
     }
 
@@ -334,26 +528,375 @@ public class ChainableAnimator implements Cancellable {
      * Starts the entire chain of animations. Returns a {@link Cancellable} that can be used to
      * cancel in-flight animations.
      * @return {@link Cancellable} to cancel any current and future animations
+     * @see #startPlayback()
      */
     public Cancellable start() {
-        state.addSet(currentAnimator);
+        return startPlayback();
+    }
+
+    /**
+     * Starts the entire chain of animations, like {@link #start()}, and returns a handle that can
+     * also reverse the chain or capture its position.
+     * @return {@link ChainPlayback} to cancel or reverse any current and future animations
+     */
+    public ChainPlayback startPlayback() {
+        build();
         startAnimations();
         return this;
     }
 
+    /**
+     * Builds the entire chain of animations and starts it from the position captured by
+     * {@link ChainPlayback#snapshot()} on an equivalent chain, e.g. one bound to the views of an
+     * activity before it was recreated. Steps that had already ended are moved straight to their end
+     * state and have their start and end hooks run, without being played again. Chains repeated with
+     * {@link #overallRepeat(int)} resume within the iteration the snapshot was taken in, in the
+     * direction it was playing, with only the remaining repetitions left to play. As with
+     * {@link #overallRepeat(int)}, chains playing {@link AnimatorSet}s of their own can only be
+     * resumed from Android O on.
+     * @param snapshot snapshot of an equivalent chain, or null to start from the beginning
+     * @return {@link ChainPlayback} to cancel or reverse any current and future animations
+     */
+    public ChainPlayback resume(ChainSnapshot snapshot) {
+        if (snapshot == null) {
+            return startPlayback();
+        }
+        build();
+        TimelinePlayer resumed = new TimelinePlayer(this);
+        if (resumed.timeline.getStepCount() != snapshot.getStepCount()) {
+            throw new IllegalArgumentException("The snapshot was taken from a chain of " + snapshot.getStepCount()
+                    + " steps, not " + resumed.timeline.getStepCount() + ".");
+        }
+        assemble();
+        player = resumed;
+        state.isStarted = true;
+        long total = player.timeline.getDuration();
+        if (snapshot.isPlayingBackward()) {
+            long position = Math.max(0, Math.min(snapshot.getPlayTime(), total));
+            player.resume(0, position, 0, 0, 0, RESTART);
+        } else {
+            // the time played wraps over the iterations of a repeated chain
+            long playedTime = Math.max(0, snapshot.getPlayTime());
+            if (overallRepeatCount == 0) {
+                playedTime = Math.min(playedTime, total);
+            }
+            player.resume(playedTime,
+                          0,
+                          total,
+                          playedTime == 0 ? chainedAnimators.getStartDelay() : 0,
+                          overallRepeatCount,
+                          overallRepeatMode);
+        }
+        return this;
+    }
+
+    @Override
+    public ChainSnapshot snapshot() {
+        if (!state.isStarted) {
+            throw new IllegalStateException("The chain must be started before taking a snapshot.");
+        }
+        ChainTimeline timeline;
+        long position;
+        long playTime;
+        boolean backward = false;
+        if (player != null) {
+            timeline = player.timeline;
+            position = Math.max(0, timeline.getPlayTime());
+            if (overallRepeatCount != 0) {
+                playTime = player.getPlayedTime();
+            } else {
+                playTime = position;
+                backward = player.isPlayingBackward();
+            }
+        } else {
+            timeline = new ChainTimeline(this);
+            position = state.stoppedAt >= 0 ? state.stoppedAt : timeline.getPlayedPosition();
+            playTime = position;
+        }
+        return new ChainSnapshot(playTime, timeline.getStepIndex(position), timeline.getStepCount(), backward);
+    }
+
+    /**
+     * Builds the entire chain of animations without starting it, and compiles it into a
+     * {@link ChainTimeline} whose position can be driven directly, e.g. from a scroll offset or a
+     * gesture. This is an alternative to {@link #start()}; the chain should not be modified or
+     * started after calling this method.
+     * @return {@link ChainTimeline} that can be seeked with {@link ChainTimeline#setProgress(float)}
+     * or {@link ChainTimeline#setPlayTime(long)}
+     */
+    public ChainTimeline timeline() {
+        build();
+        return new ChainTimeline(this);
+    }
+
+    /**
+     * Builds the chain if needed, and describes what it will do: the steps laid out on its timeline
+     * with their views, properties and timing, the number of animator and listener objects it takes
+     * to play it, and a rough estimate of its cost per frame. Meant for debugging. Like starting it,
+     * this completes the chain: no more steps or animations can be added to it afterwards.
+     * @return a multi-line description of the chain
+     */
+    public String describe() {
+        if (isCancelled()) {
+            return "Cancelled chain";
+        }
+        build();
+        return ChainDescriber.describe(this);
+    }
+
+    /**
+     * Logs the description of the chain returned by {@link #describe()}, at debug level.
+     * @param tag tag to log the description with
+     */
+    public void dump(String tag) {
+        for (String line : describe().split("\n")) {
+            Log.d(tag, line);
+        }
+    }
+
+    /**
+     * Builds the chain if needed, and counts the animators it will play, excluding sets. Useful to
+     * catch chains that create far more animators than expected. Like starting it, this completes
+     * the chain: no more steps or animations can be added to it afterwards.
+     * @return the number of animators of the chain
+     */
+    public int getAnimatorCount() {
+        if (isCancelled()) {
+            return 0;
+        }
+        build();
+        return ChainDescriber.countAnimators(this);
+    }
+
+    /**
+     * Builds the chain if needed, and moves every view straight to the state it would be in once the
+     * chain has ended, without running any frames. The start and end hooks of every step, and the
+     * overall start and end hooks, are run in the order the chain would have run them. Useful to
+     * skip an animation, e.g. when restoring a screen or when animations are disabled. A chain, or a
+     * step, repeated in reverse an odd number of times plays back to its start, so that is where its
+     * views are moved to.
+     * <p>
+     * This is an alternative to {@link #start()}; the chain should not be modified or started after
+     * calling this method.
+     */
+    public void applyEndState() {
+        if (isCancelled()) {
+            return;
+        }
+        build();
+        dispatchOverallStart();
+        for (int i = 0; i < state.steps.size(); ++i) {
+            ChainableAnimator step = state.steps.get(i);
+            step.dispatchStepStart();
+            step.applyState(true, overallInterpolator);
+            step.dispatchStepEnd();
+        }
+        if (endsAtStart(overallRepeatCount, overallRepeatMode)) {
+            for (int i = state.steps.size() - 1; i >= 0; --i) {
+                state.steps.get(i).applyState(false, overallInterpolator);
+            }
+        }
+        dispatchOverallEnd();
+    }
+
+    /**
+     * Builds the chain if needed, and moves every view straight to the state it would be in when
+     * the chain starts, without running any frames or hooks. Steps are applied last to first, so
+     * the first step animating a property decides its value.
+     * <p>
+     * This is an alternative to {@link #start()}; the chain should not be modified or started after
+     * calling this method.
+     */
+    public void applyStartState() {
+        if (isCancelled()) {
+            return;
+        }
+        build();
+        for (int i = state.steps.size() - 1; i >= 0; --i) {
+            state.steps.get(i).applyState(false, overallInterpolator);
+        }
+    }
+
+    /**
+     * Moves the animations of this step to their first or last frame.
+     * @param end whether to move to the last frame rather than the first
+     * @param overall the overall interpolator of the chain, replacing the one of the step if set
+     */
+    void applyState(boolean end, TimeInterpolator overall) {
+        boolean isAtEnd = end && !endsAtStart(repeatCount, repeatMode);
+        for (Animator a : animators) {
+            applyState(a, isAtEnd);
+        }
+    }
+
+    /**
+     * Seeks a single animation of this step to its first or last frame.
+     */
+    void applyState(Animator a, boolean end) {
+        if (a instanceof ValueAnimator
+                && endsAtStart(((ValueAnimator) a).getRepeatCount(), ((ValueAnimator) a).getRepeatMode())) {
+            end = false;
+        }
+        if (!end) {
+            ChainTimeline.seek(a, 0);
+            return;
+        }
+        if (currentAnimator.getDuration() >= 0) {
+            // as the set of the step would when started
+            a.setDuration(currentAnimator.getDuration());
+        }
+        long duration = a.getDuration();
+        int iterations = 1;
+        if (a instanceof ValueAnimator && ((ValueAnimator) a).getRepeatCount() > 0) {
+            iterations += ((ValueAnimator) a).getRepeatCount();
+        }
+        ChainTimeline.seek(a, duration * iterations);
+    }
+
+    /**
+     * @return whether an animation repeated the given way ends where it started: after an even
+     * number of iterations, every other one played in reverse
+     */
+    static boolean endsAtStart(int repeatCount, int repeatMode) {
+        return repeatMode == REVERSE && repeatCount > 0 && repeatCount % 2 == 1;
+    }
+
+    void build() {
+        if (!state.isBuilt) {
+            buildChain();
+            if (state.interpolatorSamples > 0) {
+                applyLookupTables();
+            }
+            state.isBuilt = true;
+        }
+    }
+
+    private void applyLookupTables() {
+        for (ChainableAnimator step : state.steps) {
+            if (step.interpolator != null) {
+                step.setInterpolator(state.lookupTable(step.interpolator));
+            }
+            step.applyLookupTables(state);
+        }
+        if (overallInterpolator != null) {
+            setOverallInterpolator(state.lookupTable(overallInterpolator));
+        }
+    }
+
+    /**
+     * Replaces any other interpolator used within this step, apart from the one of the step itself,
+     * by its lookup table.
+     */
+    void applyLookupTables(State state) {
+    }
+
+    /**
+     * Adds the current set of animations, or the parallel group it ends, to the chain.
+     */
+    protected void buildChain() {
+        endStep();
+    }
+
     protected void startAnimations() {
+        if (overallRepeatCount != 0) {
+            // repeat by driving the compiled timeline, so iterations don't restart the sets
+            player = new TimelinePlayer(this);
+        }
+        assemble();
+        state.isStarted = true;
+        if (overallRepeatCount != 0) {
+            player.play(0,
+                        player.timeline.getDuration(),
+                        chainedAnimators.getStartDelay(),
+                        overallRepeatCount,
+                        overallRepeatMode);
+        } else {
+            chainedAnimators.start();
+        }
+    }
+
+    /**
+     * Adds the sets of the chain to {@link #chainedAnimators}, collapsing nesting that doesn't
+     * affect timing.
+     */
+    void assemble() {
         if(chainedAnimators == null) {
             chainedAnimators = new AnimatorSet();
         }
-        if (state.animatorSets.size() == 1) {
-            chainedAnimators.play(state.animatorSets.get(0));
+        ChainOptimizer.assemble(chainedAnimators, state, true);
+    }
+
+    @Override
+    public void reverse() {
+        if (!state.isStarted) {
+            throw new IllegalStateException("The chain must be started before it can be reversed.");
+        }
+        if (isCancelled()) {
+            return;
+        }
+        long position;
+        boolean backward;
+        if (player == null) {
+            // the forward animations are still playing through the sets
+            player = new TimelinePlayer(this);
+            position = player.timeline.getPlayedPosition();
+            // stop the forward animations in place, without running any hooks
+            state.isDetaching = true;
+            chainedAnimators.cancel();
+            state.isDetaching = false;
+            backward = true;
         } else {
-            for (int i = 0; i < state.animatorSets.size() - 1; ++i) {
-                chainedAnimators.play(state.animatorSets.get(i))
-                                .before(state.animatorSets.get(i + 1));
-            }
+            position = player.timeline.getPlayTime();
+            backward = !player.isPlayingBackward();
+        }
+        player.play(position, backward ? 0 : player.timeline.getDuration());
+    }
+
+    private HookListener overallHooks() {
+        if(chainedAnimators == null) {
+            chainedAnimators = new AnimatorSet();
+        }
+        if (overallHooks == null) {
+            overallHooks = new HookListener(this, false);
+            chainedAnimators.addListener(overallHooks);
+        }
+        return overallHooks;
+    }
+
+    void dispatchStepStart() {
+        hooks.dispatchStart();
+    }
+
+    void dispatchStepEnd() {
+        hooks.dispatchEnd();
+    }
+
+    void dispatchStepCancel() {
+        hooks.dispatchCancel();
+    }
+
+    void dispatchOverallStart() {
+        if (overallHooks != null) {
+            overallHooks.dispatchStart();
+        }
+    }
+
+    void dispatchOverallEnd() {
+        if (overallHooks != null) {
+            overallHooks.dispatchEnd();
+        }
+    }
+
+    void dispatchOverallRepeat() {
+        if (overallHooks != null) {
+            overallHooks.dispatchRepeat();
+        }
+    }
+
+    void dispatchOverallCancel() {
+        if (overallHooks != null) {
+            overallHooks.dispatchCancel();
         }
-        chainedAnimators.start();
     }
 
     @Override
@@ -362,7 +905,15 @@ public class ChainableAnimator implements Cancellable {
             return;
         }
         isCancelled = true;
+        if (player == null && state.isStarted && state.stoppedAt < 0
+                && chainedAnimators != null && chainedAnimators.isStarted()) {
+            // keep the position reached through the sets, which is lost once they are cancelled
+            state.stoppedAt = new ChainTimeline(this).getPlayedPosition();
+        }
         clearCallbacks();
+        if (player != null) {
+            player.cancel();
+        }
         if (chainedAnimators != null) {
             chainedAnimators.cancel();
             chainedAnimators.removeAllListeners();
@@ -372,7 +923,7 @@ public class ChainableAnimator implements Cancellable {
     }
 
     private void clearCallbacks() {
-        state.delayHandler.removeCallbacksAndMessages(null);
+        DelayedCallbacks.removeCallbacks(state);
     }
 
     @Override
@@ -381,13 +932,42 @@ public class ChainableAnimator implements Cancellable {
     }
 
     protected static class State {
-        final List<AnimatorSet> animatorSets;
-        final Handler           delayHandler;
-
+        final List<AnimatorSet>       animatorSets;
+        final List<ChainableAnimator> steps;
+        boolean                       isBuilt;
+        boolean                       isDetaching;
+        boolean                       isStarted;
+        // position reached through the sets when the chain was cancelled, or -1
+        long                          stoppedAt = -1;
+        int                           interpolatorSamples;
+        int                           nodeCountBefore;
+        int                           nodeCountAfter;
+        Map<TimeInterpolator, LookupTableInterpolator> lookupTables;
+        // animators created by the chain itself, rather than supplied by the user
+        final Map<Animator, Boolean>  owned;
+        // animators with side effects, which must not be played through ahead of their step
+        final Map<Animator, Boolean>  deferred;
 
         private State() {
             animatorSets = new ArrayList<>();
-            delayHandler = new Handler();
+            steps = new ArrayList<>();
+            owned = new IdentityHashMap<>();
+            deferred = new IdentityHashMap<>();
+        }
+
+        LookupTableInterpolator lookupTable(TimeInterpolator interpolator) {
+            if (interpolator instanceof LookupTableInterpolator) {
+                return (LookupTableInterpolator) interpolator;
+            }
+            if (lookupTables == null) {
+                lookupTables = new IdentityHashMap<>();
+            }
+            LookupTableInterpolator table = lookupTables.get(interpolator);
+            if (table == null) {
+                table = new LookupTableInterpolator(interpolator, interpolatorSamples);
+                lookupTables.put(interpolator, table);
+            }
+            return table;
         }
 
         protected void addSet(AnimatorSet set) {
@@ -0,0 +1,493 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SimpleItemAnimator;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RecyclerView.ItemAnimator} that plays its remove, move, change and add phases as a chain:
+ * <pre>
+ *     ChainableAnimator.with(removals)
+ *                      .then(moves)
+ *                      .inParallelWith(changes)
+ *                      .then(additions)
+ *                      .start();
+ * </pre>
+ * Every phase drives all of its view holders from a single animator, updating them in one loop
+ * per frame. Runs are pooled: the per-holder state of each phase is kept in arrays, and the chain
+ * of each combination of phases is built once, then replayed by every later run that reuses it. A
+ * run only goes back to the pool once its whole chain has ended, so its animators are never shared
+ * with a chain that is still playing. Running chains are tracked in a {@link CancellableSet}:
+ * {@link #cancel()} and {@link #endAnimations()} end them all, jumping every holder to its end
+ * state, and a chain whose holders have all been ended through
+ * {@link #endAnimation(RecyclerView.ViewHolder)} is ended right away.
+ * <p>
+ * Requires the recyclerview-v7 support library to be on the classpath.
+ */
+public class ChainableItemAnimator extends SimpleItemAnimator implements Cancellable {
+    private static final int REMOVE = 0;
+    private static final int MOVE   = 1;
+    private static final int CHANGE = 2;
+    private static final int ADD    = 3;
+
+    private final List<Run>      running = new ArrayList<>();
+    private final List<Run>      pool    = new ArrayList<>();
+    private final CancellableSet chains  = new CancellableSet();
+    private Run                  pending;
+
+    @Override
+    public boolean animateRemove(RecyclerView.ViewHolder holder) {
+        endAnimation(holder);
+        View view = holder.itemView;
+        pendingBatch(REMOVE).add(holder, false, 0, 0, 0, 0, view.getAlpha(), 0);
+        return true;
+    }
+
+    @Override
+    public boolean animateAdd(RecyclerView.ViewHolder holder) {
+        endAnimation(holder);
+        holder.itemView.setAlpha(0);
+        pendingBatch(ADD).add(holder, false, 0, 0, 0, 0, 0, 1);
+        return true;
+    }
+
+    @Override
+    public boolean animateMove(RecyclerView.ViewHolder holder, int fromX, int fromY, int toX, int toY) {
+        View view = holder.itemView;
+        fromX += (int) view.getTranslationX();
+        fromY += (int) view.getTranslationY();
+        endAnimation(holder);
+        int deltaX = toX - fromX;
+        int deltaY = toY - fromY;
+        if (deltaX == 0 && deltaY == 0) {
+            dispatchMoveFinished(holder);
+            return false;
+        }
+        view.setTranslationX(-deltaX);
+        view.setTranslationY(-deltaY);
+        pendingBatch(MOVE).add(holder, false, -deltaX, -deltaY, 0, 0, view.getAlpha(), view.getAlpha());
+        return true;
+    }
+
+    @Override
+    public boolean animateChange(RecyclerView.ViewHolder oldHolder,
+                                 RecyclerView.ViewHolder newHolder,
+                                 int fromLeft,
+                                 int fromTop,
+                                 int toLeft,
+                                 int toTop) {
+        if (oldHolder == newHolder) {
+            return animateMove(oldHolder, fromLeft, fromTop, toLeft, toTop);
+        }
+        View oldView = oldHolder.itemView;
+        float prevTranslationX = oldView.getTranslationX();
+        float prevTranslationY = oldView.getTranslationY();
+        float prevAlpha = oldView.getAlpha();
+        endAnimation(oldHolder);
+        int deltaX = (int) (toLeft - fromLeft - prevTranslationX);
+        int deltaY = (int) (toTop - fromTop - prevTranslationY);
+        oldView.setTranslationX(prevTranslationX);
+        oldView.setTranslationY(prevTranslationY);
+        oldView.setAlpha(prevAlpha);
+        pendingBatch(CHANGE).add(oldHolder, true, prevTranslationX, prevTranslationY, deltaX, deltaY, prevAlpha, 0);
+        if (newHolder != null) {
+            endAnimation(newHolder);
+            View newView = newHolder.itemView;
+            newView.setTranslationX(-deltaX);
+            newView.setTranslationY(-deltaY);
+            newView.setAlpha(0);
+            pendingBatch(CHANGE).add(newHolder, false, -deltaX, -deltaY, 0, 0, 0, 1);
+        }
+        return true;
+    }
+
+    @Override
+    public void runPendingAnimations() {
+        Run run = pending;
+        pending = null;
+        if (run == null) {
+            return;
+        }
+        int phases = 0;
+        for (int phase = REMOVE; phase <= ADD; ++phase) {
+            Batch batch = run.batches[phase];
+            if (batch.count > 0) {
+                phases |= 1 << phase;
+                batch.driver.setDuration(getDuration(phase));
+            }
+        }
+        if (phases == 0) {
+            recycle(run);
+            return;
+        }
+        running.add(run);
+        chains.add(run);
+        run.start(phases);
+    }
+
+    @Override
+    public void endAnimation(RecyclerView.ViewHolder holder) {
+        if (pending != null) {
+            pending.end(holder);
+        }
+        for (int i = running.size() - 1; i >= 0; --i) {
+            Run run = running.get(i);
+            run.end(holder);
+            if (run.isEmpty()) {
+                // nothing left to animate, so end its chain now rather than once it has played out
+                running.remove(i);
+                run.cancel();
+            }
+        }
+        dispatchFinishedWhenDone();
+    }
+
+    @Override
+    public void endAnimations() {
+        if (pending != null) {
+            pending.endAll();
+            recycle(pending);
+            pending = null;
+        }
+        for (int i = running.size() - 1; i >= 0; --i) {
+            running.remove(i).endAll();
+        }
+        // ends the chain of every run, which then goes back to the pool
+        chains.cancel();
+        dispatchAnimationsFinished();
+    }
+
+    @Override
+    public boolean isRunning() {
+        if (!running.isEmpty()) {
+            return true;
+        }
+        return pending != null && !pending.isEmpty();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return chains.isCancelled();
+    }
+
+    /**
+     * Ends all running item animations, jumping every view holder to its end state.
+     */
+    @Override
+    public void cancel() {
+        endAnimations();
+    }
+
+    private Batch pendingBatch(int phase) {
+        if (pending == null) {
+            pending = pool.isEmpty() ? new Run() : pool.remove(pool.size() - 1);
+        }
+        return pending.batches[phase];
+    }
+
+    private long getDuration(int phase) {
+        switch (phase) {
+            case REMOVE:
+                return getRemoveDuration();
+            case MOVE:
+                return getMoveDuration();
+            case CHANGE:
+                return getChangeDuration();
+            default:
+                return getAddDuration();
+        }
+    }
+
+    private void recycle(Run run) {
+        for (Batch batch : run.batches) {
+            batch.clear();
+        }
+        pool.add(run);
+    }
+
+    private void dispatchFinishedWhenDone() {
+        if (!isRunning()) {
+            dispatchAnimationsFinished();
+        }
+    }
+
+    private void dispatchStarting(RecyclerView.ViewHolder holder, int phase, boolean oldItem) {
+        switch (phase) {
+            case REMOVE:
+                dispatchRemoveStarting(holder);
+                break;
+            case MOVE:
+                dispatchMoveStarting(holder);
+                break;
+            case CHANGE:
+                dispatchChangeStarting(holder, oldItem);
+                break;
+            default:
+                dispatchAddStarting(holder);
+                break;
+        }
+    }
+
+    private void dispatchFinished(RecyclerView.ViewHolder holder, int phase, boolean oldItem) {
+        switch (phase) {
+            case REMOVE:
+                dispatchRemoveFinished(holder);
+                break;
+            case MOVE:
+                dispatchMoveFinished(holder);
+                break;
+            case CHANGE:
+                dispatchChangeFinished(holder, oldItem);
+                break;
+            default:
+                dispatchAddFinished(holder);
+                break;
+        }
+    }
+
+    /**
+     * One run of pending animations: a batch of view holders per phase, and the chains playing
+     * them, built once per combination of phases.
+     */
+    private class Run extends AnimatorListenerAdapter implements Cancellable {
+        final Batch[]       batches = new Batch[4];
+        final AnimatorSet[] sets    = new AnimatorSet[1 << 4];
+        AnimatorSet         playing;
+        boolean             isCancelled;
+
+        Run() {
+            for (int phase = REMOVE; phase <= ADD; ++phase) {
+                batches[phase] = new Batch(phase);
+            }
+        }
+
+        /**
+         * Plays the chain of the given phases, building it the first time.
+         * @param phases bit mask of the phases that have view holders
+         */
+        void start(int phases) {
+            if (sets[phases] == null) {
+                sets[phases] = build(phases);
+            }
+            isCancelled = false;
+            playing = sets[phases];
+            playing.start();
+        }
+
+        private AnimatorSet build(int phases) {
+            Animator removals = driver(phases, REMOVE);
+            Animator moves = driver(phases, MOVE);
+            Animator changes = driver(phases, CHANGE);
+            Animator additions = driver(phases, ADD);
+            ChainableAnimator chain = null;
+            if (removals != null) {
+                chain = ChainableAnimator.with(removals);
+            }
+            if (moves != null) {
+                chain = chain == null ? ChainableAnimator.with(moves) : chain.then(moves);
+            }
+            if (changes != null) {
+                if (chain == null) {
+                    chain = ChainableAnimator.with(changes);
+                } else if (moves != null) {
+                    chain = chain.inParallelWith(changes);
+                } else {
+                    chain = chain.then(changes);
+                }
+            }
+            if (additions != null) {
+                chain = chain == null ? ChainableAnimator.with(additions) : chain.then(additions);
+            }
+            // played directly rather than started, so that it can be replayed by later runs
+            chain.build();
+            chain.assemble();
+            chain.chainedAnimators.addListener(this);
+            return chain.chainedAnimators;
+        }
+
+        private Animator driver(int phases, int phase) {
+            return (phases & 1 << phase) != 0 ? batches[phase].driver : null;
+        }
+
+        void end(RecyclerView.ViewHolder holder) {
+            for (Batch batch : batches) {
+                batch.end(holder);
+            }
+        }
+
+        void endAll() {
+            for (Batch batch : batches) {
+                batch.endAll();
+            }
+        }
+
+        /**
+         * @return whether every view holder of this run has been ended
+         */
+        boolean isEmpty() {
+            for (Batch batch : batches) {
+                if (batch.count > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            playing = null;
+            chains.remove(this);
+            boolean wasRunning = running.remove(this);
+            recycle(this);
+            if (wasRunning) {
+                dispatchFinishedWhenDone();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        /**
+         * Ends the chain of this run, rather than cancelling it, so that it can be replayed.
+         */
+        @Override
+        public void cancel() {
+            isCancelled = true;
+            if (playing != null) {
+                playing.end();
+            }
+        }
+    }
+
+    /**
+     * All view holders of one phase, stored as parallel arrays and driven by a single animator.
+     */
+    private class Batch extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+        final ValueAnimator driver;
+        final int phase;
+        int count;
+        RecyclerView.ViewHolder[] holders = new RecyclerView.ViewHolder[8];
+        boolean[] oldItems = new boolean[8];
+        // start and end translation x, translation y and alpha of every holder
+        float[] values = new float[8 * 6];
+
+        Batch(int phase) {
+            this.phase = phase;
+            driver = ValueAnimator.ofFloat(0f, 1f);
+            driver.addUpdateListener(this);
+            driver.addListener(this);
+        }
+
+        void add(RecyclerView.ViewHolder holder,
+                 boolean oldItem,
+                 float fromTranslationX,
+                 float fromTranslationY,
+                 float toTranslationX,
+                 float toTranslationY,
+                 float fromAlpha,
+                 float toAlpha) {
+            if (count == holders.length) {
+                RecyclerView.ViewHolder[] newHolders = new RecyclerView.ViewHolder[count * 2];
+                System.arraycopy(holders, 0, newHolders, 0, count);
+                holders = newHolders;
+                boolean[] newOldItems = new boolean[count * 2];
+                System.arraycopy(oldItems, 0, newOldItems, 0, count);
+                oldItems = newOldItems;
+                float[] newValues = new float[count * 2 * 6];
+                System.arraycopy(values, 0, newValues, 0, count * 6);
+                values = newValues;
+            }
+            holders[count] = holder;
+            oldItems[count] = oldItem;
+            int v = count * 6;
+            values[v] = fromTranslationX;
+            values[v + 1] = toTranslationX;
+            values[v + 2] = fromTranslationY;
+            values[v + 3] = toTranslationY;
+            values[v + 4] = fromAlpha;
+            values[v + 5] = toAlpha;
+            ++count;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+            for (int i = 0; i < count; ++i) {
+                dispatchStarting(holders[i], phase, oldItems[i]);
+            }
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            float fraction = animation.getAnimatedFraction();
+            for (int i = 0; i < count; ++i) {
+                View view = holders[i].itemView;
+                int v = i * 6;
+                if (values[v] != values[v + 1]) {
+                    view.setTranslationX(values[v] + (values[v + 1] - values[v]) * fraction);
+                }
+                if (values[v + 2] != values[v + 3]) {
+                    view.setTranslationY(values[v + 2] + (values[v + 3] - values[v + 2]) * fraction);
+                }
+                if (values[v + 4] != values[v + 5]) {
+                    view.setAlpha(values[v + 4] + (values[v + 5] - values[v + 4]) * fraction);
+                }
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            endAll();
+        }
+
+        /**
+         * Ends the animation of the given holder, if it belongs to this batch.
+         */
+        void end(RecyclerView.ViewHolder holder) {
+            for (int i = count - 1; i >= 0; --i) {
+                if (holders[i] == holder) {
+                    endAt(i);
+                }
+            }
+        }
+
+        void endAll() {
+            while (count > 0) {
+                endAt(count - 1);
+            }
+        }
+
+        private void endAt(int i) {
+            RecyclerView.ViewHolder holder = holders[i];
+            boolean oldItem = oldItems[i];
+            // swap the last holder into the freed slot
+            int last = count - 1;
+            holders[i] = holders[last];
+            oldItems[i] = oldItems[last];
+            System.arraycopy(values, last * 6, values, i * 6, 6);
+            holders[last] = null;
+            count = last;
+
+            View view = holder.itemView;
+            view.setTranslationX(0);
+            view.setTranslationY(0);
+            view.setAlpha(1);
+            dispatchFinished(holder, phase, oldItem);
+        }
+
+        void clear() {
+            for (int i = 0; i < count; ++i) {
+                holders[i] = null;
+            }
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * Extension of {@link ChainableAnimator} that animates the float slots of items drawn by a host
+ * view, supplied through {@link ChainableAnimator#with(FloatSlots)},
+ * {@link ChainableAnimator#then(FloatSlots)} or {@link ChainableAnimator#inParallelWith(FloatSlots)}.
+ * The requested slot animations are run on every item of the slots in parallel, by a single
+ * animator.
+ */
+public class ChainableSlotAnimator extends ChainableAnimator {
+    final FloatSlots slots;
+    SlotDriver       driver;
+
+    ChainableSlotAnimator(State state, FloatSlots slots) {
+        super(state);
+        if (slots == null) {
+            throw new IllegalArgumentException("Require slots to be able to animate");
+        }
+        this.slots = slots;
+    }
+
+    @Override
+    public ChainableSlotAnimator setDuration(long duration) {
+        return (ChainableSlotAnimator) super.setDuration(duration);
+    }
+
+    @Override
+    public ChainableSlotAnimator setStartDelay(long startDelay) {
+        return (ChainableSlotAnimator) super.setStartDelay(startDelay);
+    }
+
+    @Override
+    public ChainableSlotAnimator setInterpolator(TimeInterpolator interpolator) {
+        return (ChainableSlotAnimator) super.setInterpolator(interpolator);
+    }
+
+    @Override
+    public ChainableSlotAnimator repeat(int count) {
+        return (ChainableSlotAnimator) super.repeat(count);
+    }
+
+    @Override
+    public ChainableSlotAnimator repeatForever() {
+        return (ChainableSlotAnimator) super.repeatForever();
+    }
+
+    @Override
+    public ChainableSlotAnimator repeatMode(int mode) {
+        return (ChainableSlotAnimator) super.repeatMode(mode);
+    }
+
+    @Override
+    public ChainableSlotAnimator doOnAnimationStart(Runnable r) {
+        return (ChainableSlotAnimator) super.doOnAnimationStart(r);
+    }
+
+    @Override
+    public ChainableSlotAnimator doOnAnimationCancel(Runnable r) {
+        return (ChainableSlotAnimator) super.doOnAnimationCancel(r);
+    }
+
+    @Override
+    public ChainableSlotAnimator doOnAnimationEnd(Runnable r) {
+        return (ChainableSlotAnimator) super.doOnAnimationEnd(r);
+    }
+
+    /**
+     * Animates the given slot of every item. If a single value is supplied, the slot is animated
+     * from its value when the current step starts.
+     * @param slot index of the slot within each item, less than the stride of the slots
+     * @param values one or two values to animate between
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableSlotAnimator animate(int slot, float... values) {
+        checkSlot(slot);
+        if (values == null || values.length == 0 || values.length > 2) {
+            throw new IllegalArgumentException("Require one or two values to animate between");
+        }
+        driver().add(slot, values.length == 1 ? Float.NaN : values[0], values[values.length - 1]);
+        return this;
+    }
+
+    /**
+     * Animates the given slot of every item by the supplied value, from its current value.
+     * @param slot index of the slot within each item, less than the stride of the slots
+     * @param value value to animate by
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableSlotAnimator animateBy(int slot, float value) {
+        checkSlot(slot);
+        driver().addBy(slot, value);
+        return this;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= slots.stride) {
+            throw new IllegalArgumentException("Slot " + slot + " is outside of items of " + slots.stride + " slots");
+        }
+    }
+
+    /**
+     * Returns the driver of the current step, adding it to the step's animations the first time.
+     */
+    SlotDriver driver() {
+        if (driver == null) {
+            driver = new SlotDriver(slots);
+            playOwned(driver.animator);
+        }
+        return driver;
+    }
+}
@@ -0,0 +1,146 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.TimeInterpolator;
+import android.view.View;
+
+/**
+ * Extension of {@link ChainableAnimator} that animates any object through {@link FloatSetter}s,
+ * supplied through {@link ChainableAnimator#with(Object, FloatSetter, float...)},
+ * {@link ChainableAnimator#then(Object, FloatSetter, float...)} or
+ * {@link ChainableAnimator#inParallelWith(Object, FloatSetter, float...)}. All setters of the
+ * current step, including those of other targets added with
+ * {@link #alongWith(Object, FloatSetter, float...)}, are driven by a single animator, which
+ * invalidates each view drawing the targets once per frame.
+ * @param <T> type of the animated object
+ */
+public class ChainableTargetAnimator<T> extends ChainableAnimator {
+    final TargetDriver driver;
+    // index of the target animated by the methods of this class
+    private int        target;
+
+    ChainableTargetAnimator(State state, T target) {
+        super(state);
+        driver = new TargetDriver();
+        this.target = driver.addTarget(checkTarget(target));
+        playOwned(driver.animator);
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> setDuration(long duration) {
+        super.setDuration(duration);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> setStartDelay(long startDelay) {
+        super.setStartDelay(startDelay);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> setInterpolator(TimeInterpolator interpolator) {
+        super.setInterpolator(interpolator);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> repeat(int count) {
+        super.repeat(count);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> repeatForever() {
+        super.repeatForever();
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> repeatMode(int mode) {
+        super.repeatMode(mode);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> doOnAnimationStart(Runnable r) {
+        super.doOnAnimationStart(r);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> doOnAnimationCancel(Runnable r) {
+        super.doOnAnimationCancel(r);
+        return this;
+    }
+
+    @Override
+    public ChainableTargetAnimator<T> doOnAnimationEnd(Runnable r) {
+        super.doOnAnimationEnd(r);
+        return this;
+    }
+
+    /**
+     * Animates the target through another setter, within the current step.
+     * @param setter setter to animate the target with
+     * @param values two or more values to animate between, evenly spaced over the step
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableTargetAnimator<T> animate(FloatSetter<? super T> setter, float... values) {
+        driver.add(target, checkSetter(setter, values), values);
+        return this;
+    }
+
+    /**
+     * Animates another object within the current step, driven by the same animator as the other
+     * targets of the step. Prefer this over
+     * {@link ChainableAnimator#inParallelWith(Object, FloatSetter, float...)} for objects drawn by
+     * the same view, e.g. the layers of a {@link android.graphics.drawable.LayerDrawable}, so the view
+     * is invalidated once per frame for all of them.
+     * @param target object to animate
+     * @param setter setter to animate the object with
+     * @param values two or more values to animate between, evenly spaced over the step
+     * @param <U> type of the object
+     * @return This object, animating the given object through further calls to
+     * {@link #animate(FloatSetter, float...)} and {@link #invalidating(View)}.
+     */
+    @SuppressWarnings("unchecked")
+    public <U> ChainableTargetAnimator<U> alongWith(U target, FloatSetter<? super U> setter, float... values) {
+        checkSetter(setter, values);
+        this.target = driver.addTarget(checkTarget(target));
+        ChainableTargetAnimator<U> self = (ChainableTargetAnimator<U>) this;
+        return self.animate(setter, values);
+    }
+
+    /**
+     * Sets the view that draws the target, e.g. a custom view drawing with an animated shader. The
+     * view is invalidated once per frame of the current step, after the setters of all targets of
+     * the step are applied. Drawables find the view drawing them through their callback, so this is
+     * only needed for drawables that aren't attached to it.
+     * @param host view drawing the target
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableTargetAnimator<T> invalidating(View host) {
+        if (host == null) {
+            throw new IllegalArgumentException("Require a view to invalidate");
+        }
+        driver.setHost(target, host);
+        return this;
+    }
+
+    private static <T> T checkTarget(T target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Require a target to be able to animate");
+        }
+        return target;
+    }
+
+    static <T> FloatSetter<T> checkSetter(FloatSetter<T> setter, float... values) {
+        if (setter == null) {
+            throw new IllegalArgumentException("Require a setter to animate the target with");
+        }
+        if (values == null || values.length < 2) {
+            throw new IllegalArgumentException("Require at least two values to animate between");
+        }
+        return setter;
+    }
+}
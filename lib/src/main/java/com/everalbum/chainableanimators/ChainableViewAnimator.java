@@ -1,19 +1,20 @@
 package com.everalbum.chainableanimators;
 
 import android.animation.Animator;
-import android.animation.ObjectAnimator;
 import android.animation.TimeInterpolator;
 import android.animation.ValueAnimator;
+import android.graphics.Path;
+import android.graphics.Rect;
 import android.os.Build;
 import android.support.v4.view.ViewCompat;
 import android.view.View;
+import android.view.ViewAnimationUtils;
 import android.view.ViewGroup;
+import android.widget.TextView;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Extension of {@link ChainableAnimator} that allows view properties to be animated and chained.
@@ -22,8 +23,36 @@ import java.util.List;
  * be run on all given views in parallel.
  */
 public class ChainableViewAnimator extends ChainableAnimator {
+    /** The <code>x</code> property. */
+    public static final int X             = ViewProperties.X;
+    /** The <code>y</code> property. */
+    public static final int Y             = ViewProperties.Y;
+    /** The <code>z</code> property. */
+    public static final int Z             = ViewProperties.Z;
+    /** The <code>rotation</code> property. */
+    public static final int ROTATION      = ViewProperties.ROTATION;
+    /** The <code>rotationX</code> property. */
+    public static final int ROTATION_X    = ViewProperties.ROTATION_X;
+    /** The <code>rotationY</code> property. */
+    public static final int ROTATION_Y    = ViewProperties.ROTATION_Y;
+    /** The <code>translationX</code> property. */
+    public static final int TRANSLATION_X = ViewProperties.TRANSLATION_X;
+    /** The <code>translationY</code> property. */
+    public static final int TRANSLATION_Y = ViewProperties.TRANSLATION_Y;
+    /** The <code>translationZ</code> property. */
+    public static final int TRANSLATION_Z = ViewProperties.TRANSLATION_Z;
+    /** The <code>scaleX</code> property. */
+    public static final int SCALE_X       = ViewProperties.SCALE_X;
+    /** The <code>scaleY</code> property. */
+    public static final int SCALE_Y       = ViewProperties.SCALE_Y;
+    /** The <code>alpha</code> property. */
+    public static final int ALPHA         = ViewProperties.ALPHA;
+
     private View[] views;
-    final List<Animator> animators = new ArrayList<>();
+    private ViewDriver[] drivers;
+    private BulkViewDriver bulkDriver;
+    private boolean isBulk;
+    private int driverCount;
 
     ChainableViewAnimator(State state, View... v) {
         super(state);
@@ -34,50 +63,33 @@ public class ChainableViewAnimator extends ChainableAnimator {
     }
 
     @Override
-    public ChainableViewAnimator then(View... v) {
-        if (!animators.isEmpty()) {
-            currentAnimator.playTogether(animators);
-        }
-        return super.then(v);
-    }
-
-    @Override
-    public ChainableViewAnimator inParallelWith(View... v) {
-        if (!animators.isEmpty()) {
-            currentAnimator.playTogether(animators);
-        }
-        return super.inParallelWith(v);
+    public ChainableViewAnimator setDuration(long duration) {
+        return (ChainableViewAnimator) super.setDuration(duration);
     }
 
     @Override
-    public ChainableAnimator then(Animator a) {
-        if (!animators.isEmpty()) {
-            currentAnimator.playTogether(animators);
-        }
-        return super.then(a);
+    public ChainableViewAnimator setStartDelay(long startDelay) {
+        return (ChainableViewAnimator) super.setStartDelay(startDelay);
     }
 
     @Override
-    public ChainableAnimator inParallelWith(Animator a) {
-        if (!animators.isEmpty()) {
-            currentAnimator.playTogether(animators);
-        }
-        return super.inParallelWith(a);
+    public ChainableViewAnimator setInterpolator(TimeInterpolator interpolator) {
+        return (ChainableViewAnimator) super.setInterpolator(interpolator);
     }
 
     @Override
-    public ChainableViewAnimator setDuration(long duration) {
-        return (ChainableViewAnimator) super.setDuration(duration);
+    public ChainableViewAnimator repeat(int count) {
+        return (ChainableViewAnimator) super.repeat(count);
     }
 
     @Override
-    public ChainableViewAnimator setStartDelay(long startDelay) {
-        return (ChainableViewAnimator) super.setStartDelay(startDelay);
+    public ChainableViewAnimator repeatForever() {
+        return (ChainableViewAnimator) super.repeatForever();
     }
 
     @Override
-    public ChainableViewAnimator setInterpolator(TimeInterpolator interpolator) {
-        return (ChainableViewAnimator) super.setInterpolator(interpolator);
+    public ChainableViewAnimator repeatMode(int mode) {
+        return (ChainableViewAnimator) super.repeatMode(mode);
     }
 
     @Override
@@ -95,6 +107,24 @@ public class ChainableViewAnimator extends ChainableAnimator {
         return (ChainableViewAnimator) super.doOnAnimationEnd(r);
     }
 
+    /**
+     * Animates the views of the current step in bulk, for steps animating hundreds of views at once
+     * such as particle effects or grid reveals. The properties of all views are then driven by a
+     * single animator, with their start and end values stored in flat arrays, instead of by one
+     * animator per view. Must be called before animating any property of the step.
+     * <p>
+     * Properties animated to a single value, between two values or by an amount are animated in
+     * bulk; keyframes, paths, colors, clip bounds and reveals are still animated per view.
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableViewAnimator inBulk() {
+        if (drivers != null || bulkDriver != null) {
+            throw new IllegalStateException("Bulk mode must be enabled before animating any property of the step.");
+        }
+        isBulk = true;
+        return this;
+    }
+
     /**
      * Animates the height of the given views to the supplied value, without affecting margins
      * WARNING: this method may not behave as expected as it directly affects the dimensions of the
@@ -178,7 +208,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
                     view.requestLayout();
                 }
             });
-            animators.add(animator);
+            playOwned(animator);
         }
         return this;
     }
@@ -273,8 +303,42 @@ public class ChainableViewAnimator extends ChainableAnimator {
                     view.requestLayout();
                 }
             });
-            animators.add(animator);
+            playOwned(animator);
+        }
+        return this;
+    }
+
+    /**
+     * Animates the children of the views, which must be {@link ViewGroup}s, to the layout the given
+     * change results in. The change is run when the current step starts, or when a
+     * {@link ChainTimeline} is first set past the start of the step; never when the chain is built,
+     * nor by {@link #applyStartState()}. Each view is then measured and laid out once, within its
+     * current bounds, and its children are moved and resized from their previous bounds to their
+     * new ones, without measuring or laying out anything per frame. This is much cheaper than
+     * animating the width or height of several views.
+     * <p>
+     * The views keep their own bounds, so this suits containers whose size doesn't depend on the
+     * change, such as fixed size or <code>match_parent</code> ones. The layout the change requests
+     * still reaches the ancestors of the views, which are laid out on the next layout pass as usual.
+     * If that pass, or any later layout while the step runs, resizes or lays out one of the views,
+     * its children snap to the bounds that layout gives them until the next frame of the step.
+     * @param change runnable changing the layout, e.g. the layout params or visibility of children
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableViewAnimator layoutChange(Runnable change) {
+        if (change == null) {
+            throw new IllegalArgumentException("Require a layout change to animate");
+        }
+        ViewGroup[] parents = new ViewGroup[views.length];
+        for (int i = 0; i < views.length; ++i) {
+            if (!(views[i] instanceof ViewGroup)) {
+                throw new IllegalArgumentException("Layout changes can only be animated on a ViewGroup");
+            }
+            parents[i] = (ViewGroup) views[i];
         }
+        ValueAnimator animator = new LayoutDriver(parents, change).animator;
+        playOwned(animator);
+        state.deferred.put(animator, Boolean.TRUE);
         return this;
     }
 
@@ -287,10 +351,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setX(float)
      */
     public ChainableViewAnimator x(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "x", values));
-        }
-        return this;
+        return animateTo(ViewProperties.X, values);
     }
 
     /**
@@ -302,10 +363,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setX(float)
      */
     public ChainableViewAnimator xBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "x", view.getX(), view.getX() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.X, value);
     }
 
     /**
@@ -317,10 +375,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setY(float)
      */
     public ChainableViewAnimator y(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "y", values));
-        }
-        return this;
+        return animateTo(ViewProperties.Y, values);
     }
 
     /**
@@ -332,10 +387,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setY(float)
      */
     public ChainableViewAnimator yBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "y", view.getY(), view.getY() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.Y, value);
     }
 
     /**
@@ -350,10 +402,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
         if(Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
             return this;
         }
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "z", values));
-        }
-        return this;
+        return animateTo(ViewProperties.Z, values);
     }
 
     /**
@@ -368,10 +417,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
         if(Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
             return this;
         }
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "z", view.getZ(), view.getZ() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.Z, value);
     }
 
     /**
@@ -383,10 +429,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setRotation(float)
      */
     public ChainableViewAnimator rotation(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "rotation", values));
-        }
-        return this;
+        return animateTo(ViewProperties.ROTATION, values);
     }
 
     /**
@@ -398,13 +441,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setRotation(float)
      */
     public ChainableViewAnimator rotationBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "rotation",
-                                                 view.getRotation(),
-                                                 view.getRotation() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.ROTATION, value);
     }
 
     /**
@@ -416,10 +453,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setRotationX(float)
      */
     public ChainableViewAnimator rotationX(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "rotationX", values));
-        }
-        return this;
+        return animateTo(ViewProperties.ROTATION_X, values);
     }
 
     /**
@@ -431,13 +465,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setRotationX(float)
      */
     public ChainableViewAnimator rotationXBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "rotationX",
-                                                 view.getRotationX(),
-                                                 view.getRotationX() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.ROTATION_X, value);
     }
 
     /**
@@ -449,10 +477,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setRotationY(float)
      */
     public ChainableViewAnimator rotationY(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "rotationY", values));
-        }
-        return this;
+        return animateTo(ViewProperties.ROTATION_Y, values);
     }
 
     /**
@@ -464,14 +489,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setRotationY(float)
      */
     public ChainableViewAnimator rotationYBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "rotationY",
-                                                 view.getRotationY(),
-                                                 view.getRotationY() + value));
-        }
-
-        return this;
+        return animateBy(ViewProperties.ROTATION_Y, value);
     }
 
     /**
@@ -483,14 +501,13 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setTranslationX(float)
      */
     public ChainableViewAnimator translationX(float... values) {
-        for (View view : views) {
-            if (values != null && values.length > 1) {
-                // set the starting value
+        if (values != null && values.length > 1) {
+            // set the starting value
+            for (View view : views) {
                 view.setTranslationX(values[0]);
             }
-            animators.add(ObjectAnimator.ofFloat(view, "translationX", values));
         }
-        return this;
+        return animateTo(ViewProperties.TRANSLATION_X, values);
     }
 
     /**
@@ -502,13 +519,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setTranslationX(float)
      */
     public ChainableViewAnimator translationXBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "translationX",
-                                                 view.getTranslationX(),
-                                                 view.getTranslationX() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.TRANSLATION_X, value);
     }
 
     /**
@@ -520,14 +531,13 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setTranslationY(float)
      */
     public ChainableViewAnimator translationY(float... values) {
-        for (View view : views) {
-            if (values != null && values.length > 1) {
-                // set the starting value
+        if (values != null && values.length > 1) {
+            // set the starting value
+            for (View view : views) {
                 view.setTranslationY(values[0]);
             }
-            animators.add(ObjectAnimator.ofFloat(view, "translationY", values));
         }
-        return this;
+        return animateTo(ViewProperties.TRANSLATION_Y, values);
     }
 
     /**
@@ -539,13 +549,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setTranslationY(float)
      */
     public ChainableViewAnimator translationYBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "translationY",
-                                                 view.getTranslationY(),
-                                                 view.getTranslationY() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.TRANSLATION_Y, value);
     }
 
     /**
@@ -560,10 +564,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
         if(Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
             return this;
         }
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "translationZ", values));
-        }
-        return this;
+        return animateTo(ViewProperties.TRANSLATION_Z, values);
     }
 
     /**
@@ -578,13 +579,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
         if(Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
             return this;
         }
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "translationZ",
-                                                 ViewCompat.getTranslationZ(view),
-                                                 ViewCompat.getTranslationZ(view) + value));
-        }
-        return this;
+        return animateBy(ViewProperties.TRANSLATION_Z, value);
     }
 
     /**
@@ -596,10 +591,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setScaleX(float)
      */
     public ChainableViewAnimator scaleX(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "scaleX", values));
-        }
-        return this;
+        return animateTo(ViewProperties.SCALE_X, values);
     }
 
     /**
@@ -611,13 +603,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setScaleX(float)
      */
     public ChainableViewAnimator scaleXBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "scaleX",
-                                                 view.getScaleX(),
-                                                 view.getScaleX() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.SCALE_X, value);
     }
 
     /**
@@ -629,10 +615,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setScaleY(float)
      */
     public ChainableViewAnimator scaleY(float... values) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view, "scaleY", values));
-        }
-        return this;
+        return animateTo(ViewProperties.SCALE_Y, values);
     }
 
     /**
@@ -644,13 +627,7 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setScaleY(float)
      */
     public ChainableViewAnimator scaleYBy(float value) {
-        for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "scaleY",
-                                                 view.getScaleX(),
-                                                 view.getScaleY() + value));
-        }
-        return this;
+        return animateBy(ViewProperties.SCALE_Y, value);
     }
 
     /**
@@ -662,14 +639,13 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setAlpha(float)
      */
     public ChainableViewAnimator alpha(float... values) {
-        for (View view : views) {
-            if (values != null && values.length > 1) {
-                // set the starting alpha
+        if (values != null && values.length > 1) {
+            // set the starting alpha
+            for (View view : views) {
                 view.setAlpha(values[0]);
             }
-            animators.add(ObjectAnimator.ofFloat(view, "alpha", values));
         }
-        return this;
+        return animateTo(ViewProperties.ALPHA, values);
     }
 
     /**
@@ -681,18 +657,364 @@ public class ChainableViewAnimator extends ChainableAnimator {
      * @see View#setAlpha(float)
      */
     public ChainableViewAnimator alphaBy(float value) {
+        return animateBy(ViewProperties.ALPHA, value);
+    }
+
+    /**
+     * Animates the given property of the views through a sequence of keyframes, within a single
+     * animation of the current step. Each segment between two keyframes can have its own easing,
+     * applied on top of the interpolator of the step.
+     *
+     * @param property one of the property constants of this class, e.g. {@link #ALPHA}
+     * @param times time of each keyframe, as a fraction of the step duration between 0 and 1, in
+     * increasing order
+     * @param values value of the property at each keyframe
+     * @param easings easing of each segment, starting at the keyframe of the same index. May be
+     * null, as may any of its elements, for linear segments
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableViewAnimator keyframes(int property, float[] times, float[] values, TimeInterpolator[] easings) {
+        if (property < 0 || property >= ViewProperties.COUNT) {
+            throw new IllegalArgumentException("Unknown property " + property);
+        }
+        if (times == null || values == null || times.length == 0 || times.length != values.length) {
+            throw new IllegalArgumentException("Require as many keyframe times as values, and at least one");
+        }
+        if (easings != null && easings.length < times.length - 1) {
+            throw new IllegalArgumentException("Require an easing for each segment between keyframes");
+        }
+        for (int i = 0; i < times.length; ++i) {
+            if (times[i] < 0 || times[i] > 1 || (i > 0 && times[i] <= times[i - 1])) {
+                throw new IllegalArgumentException("Keyframe times must be increasing fractions between 0 and 1");
+            }
+        }
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).addKeyframes(property, times, values, easings);
+        }
+        return this;
+    }
+
+    /**
+     * Moves the views along the given path, by animating their <code>x</code> and <code>y</code>
+     * properties. The path is sampled by arc length once, and the samples are reused by every
+     * animation along the same path instance, so the path must not be modified afterwards. An empty
+     * path, or one of zero length, is rejected.
+     *
+     * @param path path in the coordinates of the views' parent
+     * @return This object, allowing calls to methods in this class to be chained.
+     */
+    public ChainableViewAnimator alongPath(Path path) {
+        return alongPath(path, false);
+    }
+
+    /**
+     * Moves the views along the given path, optionally rotating them to follow its direction.
+     *
+     * @param path path in the coordinates of the views' parent
+     * @param rotateToTangent whether to animate the <code>rotation</code> property to the angle of
+     * the path as well
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see #alongPath(Path)
+     */
+    public ChainableViewAnimator alongPath(Path path, boolean rotateToTangent) {
+        if (path == null) {
+            throw new IllegalArgumentException("Require a path to animate along");
+        }
+        PathTable table = PathTable.of(path);
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).setPath(table, rotateToTangent);
+        }
+        return this;
+    }
+
+    /**
+     * Reveals or hides the views with an expanding or shrinking circle. The reveal is created when
+     * the current step starts, since the views must be attached by then, and runs on the render
+     * thread.
+     * <p>
+     * On api &lt; 21, and while the chain is seeked through a {@link ChainTimeline}, reversed or
+     * repeating the step, it degrades to animating the clip bounds of the views to the square
+     * enclosing the circle: the views are revealed by a growing rectangle rather than a circle. On
+     * api &lt; 18, where clip bounds aren't supported, nothing is animated at all and the views are
+     * left fully visible.
+     *
+     * @param centerX x coordinate of the center of the circle, relative to each view
+     * @param centerY y coordinate of the center of the circle, relative to each view
+     * @param startRadius starting radius of the circle
+     * @param endRadius ending radius of the circle
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see ViewAnimationUtils#createCircularReveal(View, int, int, float, float)
+     */
+    public ChainableViewAnimator circularReveal(float centerX, float centerY, float startRadius, float endRadius) {
+        if (startRadius < 0 || endRadius < 0) {
+            throw new IllegalArgumentException("Reveal radius must be greater than 0.");
+        }
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).setCircularReveal(centerX, centerY, startRadius, endRadius);
+        }
+        return this;
+    }
+
+    /**
+     * Animates the clip bounds of the views, in their own coordinates, without affecting their
+     * layout. The clip is removed once it covers the entire view. This method will do nothing on
+     * api &lt; 18, where clip bounds aren't supported: the views stay unclipped for the whole step.
+     *
+     * @param from starting clip bounds
+     * @param to ending clip bounds
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see View#setClipBounds(Rect)
+     */
+    public ChainableViewAnimator clipBounds(Rect from, Rect to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Require both clip bounds to animate between");
+        }
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).setClipBounds(from, to);
+        }
+        return this;
+    }
+
+    /**
+     * Animates the background color of the views between the given ARGB colors. The colors are
+     * interpolated in linear space, which avoids the dark midpoints of interpolating sRGB values.
+     *
+     * @param fromColor starting color
+     * @param toColor ending color
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see View#setBackgroundColor(int)
+     */
+    public ChainableViewAnimator backgroundColor(int fromColor, int toColor) {
+        return color(ViewDriver.BACKGROUND_COLOR, fromColor, toColor);
+    }
+
+    /**
+     * Animates the background tint of the views between the given ARGB colors, interpolated in
+     * linear space. This method will do nothing on api &lt; 21 unless the views support
+     * background tinting through the support library.
+     *
+     * @param fromColor starting color
+     * @param toColor ending color
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see ViewCompat#setBackgroundTintList(View, android.content.res.ColorStateList)
+     */
+    public ChainableViewAnimator backgroundTint(int fromColor, int toColor) {
+        return color(ViewDriver.BACKGROUND_TINT, fromColor, toColor);
+    }
+
+    /**
+     * Animates the text color of the views between the given ARGB colors, interpolated in linear
+     * space. All views must be {@link TextView}s.
+     *
+     * @param fromColor starting color
+     * @param toColor ending color
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see TextView#setTextColor(int)
+     */
+    public ChainableViewAnimator textColor(int fromColor, int toColor) {
+        for (View view : views) {
+            if (!(view instanceof TextView)) {
+                throw new IllegalArgumentException("Text color can only be animated on a TextView");
+            }
+        }
+        return color(ViewDriver.TEXT_COLOR, fromColor, toColor);
+    }
+
+    /**
+     * Counts the text of the views between the given numbers, e.g. to roll up a price or a score.
+     * Each number is formatted into a reused char array, and the text is only set when the displayed
+     * digits change, so counting allocates no strings. All views must be {@link TextView}s.
+     *
+     * @param from starting number
+     * @param to ending number
+     * @param format decimal pattern of the text, with an optional literal prefix and suffix, e.g.
+     * <code>"0"</code>, <code>"$#,##0.00"</code> or <code>"#,##0 items"</code>. Separators are
+     * always <code>,</code> and <code>.</code>, and the prefix and suffix can't contain digits or
+     * pattern characters that would make the number ambiguous, as in <code>"Level 10: 0"</code>
+     * @return This object, allowing calls to methods in this class to be chained.
+     * @see TextView#setText(char[], int, int)
+     */
+    public ChainableViewAnimator number(double from, double to, String format) {
         for (View view : views) {
-            animators.add(ObjectAnimator.ofFloat(view,
-                                                 "alpha",
-                                                 view.getAlpha(),
-                                                 view.getAlpha() + value));
+            if (!(view instanceof TextView)) {
+                throw new IllegalArgumentException("Numbers can only be animated on a TextView");
+            }
+        }
+        NumberFormatter formatter = new NumberFormatter(format);
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).setNumber(from, to, formatter);
+        }
+        return this;
+    }
+
+    private ChainableViewAnimator color(int target, int fromColor, int toColor) {
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).addColor(target, fromColor, toColor);
+        }
+        return this;
+    }
+
+    private ChainableViewAnimator animateTo(int property, float... values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("Require at least one value to animate to");
+        }
+        if (isBulk && values.length <= 2) {
+            bulkDriver().add(property, values.length == 1 ? Float.NaN : values[0], values[values.length - 1]);
+            return this;
+        }
+        return animateKeyframes(property, keyTimes(values), keyValues(values));
+    }
+
+    /**
+     * Adds a track animating the property of every view through the given keyframes, as computed
+     * by {@link #keyTimes(float[])} and {@link #keyValues(float[])}. The drivers copy the arrays, so
+     * they can be computed once and shared, e.g. by a {@link ChainSpec}.
+     */
+    ChainableViewAnimator animateKeyframes(int property, float[] times, float[] keyValues) {
+        for (int i = 0; i < views.length; ++i) {
+            driver(i).addKeyframes(property, times, keyValues, null);
+        }
+        return this;
+    }
+
+    /**
+     * @return the times of the keyframes animating through the given values, evenly spaced
+     */
+    static float[] keyTimes(float[] values) {
+        if (values.length == 1) {
+            return new float[]{0f, 1f};
+        }
+        float[] times = new float[values.length];
+        for (int i = 0; i < times.length; ++i) {
+            times[i] = i / (float) (times.length - 1);
+        }
+        return times;
+    }
+
+    /**
+     * @return the values of the keyframes animating through the given values. A single value is
+     * animated to from whatever the value is when the step starts.
+     */
+    static float[] keyValues(float[] values) {
+        return values.length == 1 ? new float[]{Float.NaN, values[0]} : values;
+    }
+
+    private ChainableViewAnimator animateBy(int property, float value) {
+        if (isBulk) {
+            bulkDriver().addBy(property, value);
+            return this;
+        }
+        float[] times = {0f, 1f};
+        for (int i = 0; i < views.length; ++i) {
+            float current = ViewProperties.get(views[i], property);
+            driver(i).addKeyframes(property, times, new float[]{current, current + value}, null);
         }
         return this;
     }
 
+    /**
+     * Returns the driver of the view at the given index for the current step, adding it to the
+     * step's animations the first time.
+     */
+    ViewDriver driver(int index) {
+        if (drivers == null) {
+            drivers = new ViewDriver[views.length];
+        }
+        if (drivers[index] == null) {
+            drivers[index] = new ViewDriver(views[index]);
+            playOwned(drivers[index].animator);
+            driverCount++;
+        }
+        return drivers[index];
+    }
+
+    /**
+     * @return the views animated by the current step
+     */
+    View[] getViews() {
+        return views;
+    }
+
+    /**
+     * @return the drivers of the current step, by view index, or null if none was added yet
+     */
+    ViewDriver[] getDrivers() {
+        return drivers;
+    }
+
+    /**
+     * @return the bulk driver of the current step, or null if it animates its views separately
+     */
+    BulkViewDriver getBulkDriver() {
+        return bulkDriver;
+    }
+
+    /**
+     * Returns the bulk driver of the current step, adding it to the step's animations the first time.
+     */
+    BulkViewDriver bulkDriver() {
+        if (bulkDriver == null) {
+            bulkDriver = new BulkViewDriver(views);
+            playOwned(bulkDriver.animator);
+            driverCount++;
+        }
+        return bulkDriver;
+    }
+
     @Override
-    public Cancellable start() {
-        currentAnimator.playTogether(animators);
-        return super.start();
+    void applyState(boolean end, TimeInterpolator overall) {
+        boolean isAtEnd = end && !endsAtStart(repeatCount, repeatMode);
+        float fraction = isAtEnd ? 1f : 0f;
+        if (drivers != null) {
+            for (ViewDriver driver : drivers) {
+                if (driver != null) {
+                    driver.apply(interpolate(fraction, overall, driver.animator));
+                }
+            }
+        }
+        if (bulkDriver != null) {
+            bulkDriver.apply(interpolate(fraction, overall, bulkDriver.animator));
+        }
+        if (animators.size() > driverCount) {
+            for (int i = 0; i < animators.size(); ++i) {
+                Animator a = animators.get(i);
+                if (!isDriven(a)) {
+                    applyState(a, isAtEnd);
+                }
+            }
+        }
     }
+
+    @Override
+    void applyLookupTables(State state) {
+        if (drivers != null) {
+            for (ViewDriver driver : drivers) {
+                if (driver != null) {
+                    driver.applyLookupTables(state);
+                }
+            }
+        }
+    }
+
+    private float interpolate(float fraction, TimeInterpolator overall, Animator driver) {
+        TimeInterpolator easing = overall != null ? overall
+                : interpolator != null ? interpolator
+                : driver.getInterpolator();
+        return easing != null ? easing.getInterpolation(fraction) : fraction;
+    }
+
+    private boolean isDriven(Animator a) {
+        if (bulkDriver != null && bulkDriver.animator == a) {
+            return true;
+        }
+        if (drivers != null) {
+            for (ViewDriver driver : drivers) {
+                if (driver != null && driver.animator == a) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,30 @@
+package com.everalbum.chainableanimators;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * Schedules the delayed lifecycle hooks of every chain on a single main thread {@link Handler}.
+ * Callbacks are posted with a per-chain token, so cancelling a chain only removes its own callbacks.
+ * The handler is only created once a delayed hook actually runs.
+ */
+final class DelayedCallbacks {
+    private static Handler handler;
+
+    private DelayedCallbacks() {
+    }
+
+    static void postDelayed(Runnable r, Object token, long delay) {
+        if (handler == null) {
+            handler = new Handler(Looper.getMainLooper());
+        }
+        handler.postAtTime(r, token, SystemClock.uptimeMillis() + delay);
+    }
+
+    static void removeCallbacks(Object token) {
+        if (handler != null) {
+            handler.removeCallbacksAndMessages(token);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.everalbum.chainableanimators;
+
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.view.View;
+
+/**
+ * View drawing some of the targets of a step, invalidated once per frame of the step, after the
+ * setters of all of its targets have been applied.
+ * <p>
+ * While the step runs, the outermost drawable through which the view draws an animated drawable,
+ * e.g. its background, is given a callback that collects the invalidations of that drawable and of
+ * every drawable it contains into the dirty region of the view, rather than invalidating the view
+ * once per drawable. Containers such as {@link android.graphics.drawable.LayerDrawable} still see
+ * the invalidations of their children, since the callbacks of the children are left alone.
+ * Invalidations outside of a frame of the step, and scheduling, are forwarded to the callback the
+ * outermost drawable had before.
+ */
+final class DrawableHost {
+    final View          host;
+    private final Rect  dirty = new Rect();
+    // whether the whole view is invalidated every frame, for targets it draws without a callback
+    boolean             invalidatesAll;
+    private Drawable[]  roots = new Drawable[1];
+    // strongly held while installed, since drawables only keep a weak reference to their callback
+    private Callback[]  callbacks = new Callback[1];
+    private int         rootCount;
+    private boolean     isBatching;
+    private boolean     isDirty;
+
+    DrawableHost(View host) {
+        this.host = host;
+    }
+
+    /**
+     * @return the outermost drawable through which the given drawable is drawn
+     */
+    static Drawable root(Drawable drawable) {
+        Drawable root = drawable;
+        while (root.getCallback() instanceof Drawable) {
+            root = (Drawable) root.getCallback();
+        }
+        return root;
+    }
+
+    /**
+     * @return the view the given outermost drawable is attached to, or null
+     */
+    static View viewOf(Drawable root) {
+        Drawable.Callback callback = root.getCallback();
+        if (callback instanceof Callback) {
+            callback = ((Callback) callback).original;
+        }
+        return callback instanceof View ? (View) callback : null;
+    }
+
+    /**
+     * Adds an outermost drawable attached to the view, whose invalidations are collected while the
+     * step runs.
+     */
+    void addRoot(Drawable root) {
+        for (int i = 0; i < rootCount; ++i) {
+            if (roots[i] == root) {
+                return;
+            }
+        }
+        if (rootCount == roots.length) {
+            Drawable[] grownRoots = new Drawable[rootCount * 2];
+            Callback[] grownCallbacks = new Callback[rootCount * 2];
+            System.arraycopy(roots, 0, grownRoots, 0, rootCount);
+            System.arraycopy(callbacks, 0, grownCallbacks, 0, rootCount);
+            roots = grownRoots;
+            callbacks = grownCallbacks;
+        }
+        roots[rootCount++] = root;
+    }
+
+    /**
+     * Installs the collecting callbacks, when the step starts.
+     */
+    void attach() {
+        for (int i = 0; i < rootCount; ++i) {
+            Drawable.Callback original = roots[i].getCallback();
+            // already collected by another step running at the same time
+            if (original instanceof Callback) {
+                callbacks[i] = null;
+                continue;
+            }
+            callbacks[i] = new Callback(this, original);
+            roots[i].setCallback(callbacks[i]);
+        }
+    }
+
+    /**
+     * Restores the callbacks the outermost drawables had, once the step ends or is cancelled.
+     */
+    void detach() {
+        for (int i = 0; i < rootCount; ++i) {
+            Callback callback = callbacks[i];
+            if (callback != null && roots[i].getCallback() == callback) {
+                roots[i].setCallback(callback.original);
+            }
+            callbacks[i] = null;
+        }
+    }
+
+    /**
+     * Starts collecting invalidations, before the setters of a frame are applied.
+     */
+    void begin() {
+        isBatching = true;
+    }
+
+    /**
+     * Stops collecting invalidations, and invalidates the view once if anything it draws changed.
+     */
+    void end() {
+        isBatching = false;
+        if (invalidatesAll) {
+            host.invalidate();
+        } else if (isDirty) {
+            // as View#invalidateDrawable() would, for all the drawables at once
+            int scrollX = host.getScrollX();
+            int scrollY = host.getScrollY();
+            host.invalidate(dirty.left + scrollX, dirty.top + scrollY,
+                            dirty.right + scrollX, dirty.bottom + scrollY);
+        }
+        isDirty = false;
+        dirty.setEmpty();
+    }
+
+    private void invalidate(Drawable root, Drawable.Callback original) {
+        if (!isBatching) {
+            if (original != null) {
+                original.invalidateDrawable(root);
+            }
+            return;
+        }
+        isDirty = true;
+        dirty.union(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? root.getDirtyBounds() : root.getBounds());
+    }
+
+    private static final class Callback implements Drawable.Callback {
+        final DrawableHost      host;
+        final Drawable.Callback original;
+
+        Callback(DrawableHost host, Drawable.Callback original) {
+            this.host = host;
+            this.original = original;
+        }
+
+        @Override
+        public void invalidateDrawable(Drawable who) {
+            host.invalidate(who, original);
+        }
+
+        @Override
+        public void scheduleDrawable(Drawable who, Runnable what, long when) {
+            if (original != null) {
+                original.scheduleDrawable(who, what, when);
+            }
+        }
+
+        @Override
+        public void unscheduleDrawable(Drawable who, Runnable what) {
+            if (original != null) {
+                original.unscheduleDrawable(who, what);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.everalbum.chainableanimators;
+
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.ShapeDrawable;
+
+/**
+ * {@link FloatSetter}s of common drawable properties, to animate drawables as chain targets:
+ * <pre>
+ *     ChainableAnimator.with(background, DrawableSetters.CORNER_RADIUS, 0, 48)
+ *                      .alongWith(badge, DrawableSetters.ALPHA, 0, 255)
+ *                      .start();
+ * </pre>
+ * Drawables animated within the same step that are drawn by a view, directly or through a
+ * containing drawable, invalidate that view once per frame. Remember to {@link Drawable#mutate()}
+ * drawables that share their state with others before animating them.
+ */
+public final class DrawableSetters {
+    /** The alpha of a drawable, between 0 and 255. */
+    public static final FloatSetter<Drawable> ALPHA = new FloatSetter<Drawable>() {
+        @Override
+        public void set(Drawable target, float value) {
+            target.setAlpha(Math.max(0, Math.min(255, Math.round(value))));
+        }
+    };
+
+    /** The level of a drawable, between 0 and 10000. */
+    public static final FloatSetter<Drawable> LEVEL = new FloatSetter<Drawable>() {
+        @Override
+        public void set(Drawable target, float value) {
+            if (target.setLevel(Math.max(0, Math.min(10000, Math.round(value))))) {
+                target.invalidateSelf();
+            }
+        }
+    };
+
+    /** The corner radius of a {@link GradientDrawable}. */
+    public static final FloatSetter<GradientDrawable> CORNER_RADIUS = new FloatSetter<GradientDrawable>() {
+        @Override
+        public void set(GradientDrawable target, float value) {
+            target.setCornerRadius(value);
+        }
+    };
+
+    /** The gradient radius of a radial {@link GradientDrawable}. */
+    public static final FloatSetter<GradientDrawable> GRADIENT_RADIUS = new FloatSetter<GradientDrawable>() {
+        @Override
+        public void set(GradientDrawable target, float value) {
+            target.setGradientRadius(value);
+        }
+    };
+
+    /** The stroke width of the paint of a {@link ShapeDrawable}. */
+    public static final FloatSetter<ShapeDrawable> STROKE_WIDTH = new FloatSetter<ShapeDrawable>() {
+        @Override
+        public void set(ShapeDrawable target, float value) {
+            if (target.getPaint().getStrokeWidth() != value) {
+                target.getPaint().setStrokeWidth(value);
+                target.invalidateSelf();
+            }
+        }
+    };
+
+    private DrawableSetters() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.everalbum.chainableanimators;
+
+/**
+ * Writes an animated float value into a target object, without reflection or boxing:
+ * <pre>
+ *     static final FloatSetter&lt;Camera&gt; ZOOM = new FloatSetter&lt;Camera&gt;() {
+ *         &#64;Override
+ *         public void set(Camera camera, float value) {
+ *             camera.setZoom(value);
+ *         }
+ *     };
+ *
+ *     ChainableAnimator.with(camera, ZOOM, 1f, 2f)
+ *                      .then(camera, PAN, 0f, 100f)
+ *                      .start();
+ * </pre>
+ * @param <T> type of the animated objects
+ */
+public interface FloatSetter<T> {
+    /**
+     * Sets the animated value on the target, once per frame.
+     * @param target animated object
+     * @param value current value of the animation
+     */
+    void set(T target, float value);
+}
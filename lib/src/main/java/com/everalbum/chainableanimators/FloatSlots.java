@@ -0,0 +1,96 @@
+package com.everalbum.chainableanimators;
+
+import android.view.View;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Animation target made of float slots inside a caller-provided array or {@link FloatBuffer}, for
+ * items drawn by a single host view, such as confetti or chart bars. The values are laid out item
+ * after item, each item taking <code>stride</code> consecutive slots:
+ * <pre>
+ *     // x, y and rotation of each piece of confetti
+ *     float[] confetti = new float[PIECES * 3];
+ *     ChainableAnimator.with(FloatSlots.of(confettiView, confetti, 3))
+ *                      .animate(1, -50, 800)
+ *                      .animateBy(2, 720)
+ *                      .setDuration(1200)
+ *                      .start();
+ * </pre>
+ * Animating the slots doesn't go through any {@link View} setter: the values are written into the
+ * array, and the host view is invalidated, so it can draw them all from its <code>onDraw</code>. The
+ * view redraws once per frame, however many items or steps changed.
+ */
+public final class FloatSlots {
+    final View        host;
+    final FloatBuffer buffer;
+    final int         stride;
+    final int         first;
+    final int         count;
+
+    private FloatSlots(View host, FloatBuffer buffer, int stride, int first, int count) {
+        this.host = host;
+        this.buffer = buffer;
+        this.stride = stride;
+        this.first = first;
+        this.count = count;
+    }
+
+    /**
+     * Targets every item of the given array.
+     * @param host view drawing the items, invalidated when their values change
+     * @param values values of the items, item after item
+     * @param stride number of slots of each item
+     * @return slots of every item of the array
+     */
+    public static FloatSlots of(View host, float[] values, int stride) {
+        if (values == null) {
+            throw new IllegalArgumentException("Require an array of values to animate");
+        }
+        return of(host, FloatBuffer.wrap(values), stride);
+    }
+
+    /**
+     * Targets every item of the given buffer, from index 0 to its limit.
+     * @param host view drawing the items, invalidated when their values change
+     * @param buffer values of the items, item after item
+     * @param stride number of slots of each item
+     * @return slots of every item of the buffer
+     */
+    public static FloatSlots of(View host, FloatBuffer buffer, int stride) {
+        if (host == null || buffer == null) {
+            throw new IllegalArgumentException("Require both a host view and a buffer of values to animate");
+        }
+        if (stride < 1) {
+            throw new IllegalArgumentException("Stride must be at least 1.");
+        }
+        return new FloatSlots(host, buffer, stride, 0, buffer.limit() / stride);
+    }
+
+    /**
+     * Targets a range of the items of these slots, e.g. to animate them in separate steps.
+     * @param first index of the first item of the range, relative to these slots
+     * @param count number of items of the range
+     * @return slots of the items of the range
+     */
+    public FloatSlots range(int first, int count) {
+        if (first < 0 || count < 0 || first + count > this.count) {
+            throw new IllegalArgumentException("Range " + first + " + " + count + " is outside of " + this.count + " items");
+        }
+        return new FloatSlots(host, buffer, stride, this.first + first, count);
+    }
+
+    /**
+     * @return the number of items targeted
+     */
+    public int getItemCount() {
+        return count;
+    }
+
+    /**
+     * @return the index of the given slot of the given item in the buffer
+     */
+    int index(int item, int slot) {
+        return (first + item) * stride + slot;
+    }
+}
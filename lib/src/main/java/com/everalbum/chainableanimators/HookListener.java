@@ -0,0 +1,140 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+
+/**
+ * Single listener of a set of animations, which runs all of the lifecycle hooks registered on it.
+ * Hooks are kept in compact per-event arrays, so neither registering nor dispatching them requires
+ * an extra listener object.
+ */
+final class HookListener implements Animator.AnimatorListener {
+    private static final Runnable[] NO_HOOKS  = new Runnable[0];
+    private static final long[]     NO_DELAYS = new long[0];
+
+    private final ChainableAnimator owner;
+    private final boolean           cancelsOwner;
+
+    private Runnable[] startHooks      = NO_HOOKS;
+    private Runnable[] endHooks        = NO_HOOKS;
+    private Runnable[] cancelHooks     = NO_HOOKS;
+    private Runnable[] repeatHooks     = NO_HOOKS;
+    private Runnable[] delayedEndHooks = NO_HOOKS;
+    private long[]     endDelays       = NO_DELAYS;
+    private int        startCount;
+    private int        endCount;
+    private int        cancelCount;
+    private int        repeatCount;
+    private int        delayedEndCount;
+    // whether the listened to animations have started and ended, when played through their sets
+    boolean            hasStarted;
+    boolean            hasEnded;
+
+    /**
+     * @param cancelsOwner whether cancelling the listened to animations cancels the owner as well
+     */
+    HookListener(ChainableAnimator owner, boolean cancelsOwner) {
+        this.owner = owner;
+        this.cancelsOwner = cancelsOwner;
+    }
+
+    void addStartHook(Runnable r) {
+        startHooks = append(startHooks, startCount++, r);
+    }
+
+    void addEndHook(Runnable r) {
+        endHooks = append(endHooks, endCount++, r);
+    }
+
+    void addCancelHook(Runnable r) {
+        cancelHooks = append(cancelHooks, cancelCount++, r);
+    }
+
+    void addRepeatHook(Runnable r) {
+        repeatHooks = append(repeatHooks, repeatCount++, r);
+    }
+
+    void addDelayedEndHook(Runnable r, long delay) {
+        if (delayedEndCount == endDelays.length) {
+            long[] delays = new long[Math.max(2, delayedEndCount * 2)];
+            System.arraycopy(endDelays, 0, delays, 0, delayedEndCount);
+            endDelays = delays;
+        }
+        endDelays[delayedEndCount] = delay;
+        delayedEndHooks = append(delayedEndHooks, delayedEndCount++, r);
+    }
+
+    /**
+     * @return the number of hooks registered on this listener
+     */
+    int getHookCount() {
+        return startCount + endCount + cancelCount + repeatCount + delayedEndCount;
+    }
+
+    void dispatchStart() {
+        for (int i = 0; i < startCount; ++i) {
+            startHooks[i].run();
+        }
+    }
+
+    void dispatchEnd() {
+        if (owner.isCancelled() || owner.state.isDetaching) {
+            return;
+        }
+        for (int i = 0; i < endCount; ++i) {
+            endHooks[i].run();
+        }
+        for (int i = 0; i < delayedEndCount; ++i) {
+            DelayedCallbacks.postDelayed(delayedEndHooks[i], owner.state, endDelays[i]);
+        }
+    }
+
+    void dispatchCancel() {
+        if (owner.state.isDetaching) {
+            return;
+        }
+        for (int i = 0; i < cancelCount; ++i) {
+            cancelHooks[i].run();
+        }
+    }
+
+    void dispatchRepeat() {
+        for (int i = 0; i < repeatCount; ++i) {
+            repeatHooks[i].run();
+        }
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        hasStarted = true;
+        dispatchStart();
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+        hasEnded = true;
+        dispatchEnd();
+    }
+
+    @Override
+    public void onAnimationCancel(Animator animation) {
+        if (cancelsOwner && !owner.state.isDetaching) {
+            owner.cancel();
+        }
+        dispatchCancel();
+    }
+
+    @Override
+    public void onAnimationRepeat(Animator animation) {
+        dispatchRepeat();
+    }
+
+    private static Runnable[] append(Runnable[] hooks, int count, Runnable r) {
+        if (count == hooks.length) {
+            Runnable[] grown = new Runnable[Math.max(2, count * 2)];
+            System.arraycopy(hooks, 0, grown, 0, count);
+            hooks = grown;
+        }
+        hooks[count] = r;
+        return hooks;
+    }
+}
@@ -0,0 +1,152 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Single animator moving the children of one or more parents from their current bounds to the
+ * bounds a layout change gives them. When the step starts, or is first seeked past its start, the
+ * bounds of the children are captured, the change is applied, and each parent is measured and laid
+ * out once, within its current bounds, to capture the bounds after the change. Seeking the start
+ * of the step before that does nothing, since the children are still at their previous bounds.
+ * Every frame then only sets the left, top, right and bottom of the children, which neither
+ * measures nor lays out anything.
+ * <p>
+ * Only the parents are laid out. The ancestors of the parents are left to the next layout pass
+ * requested by the change, which snaps the children back to the new layout if it lays out one of
+ * the parents again, until the next frame of the step.
+ * <p>
+ * Children added by the change appear at their new bounds; children removed by it are left alone.
+ */
+final class LayoutDriver extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+    final ViewGroup[]      parents;
+    final ValueAnimator    animator;
+    private final Runnable change;
+
+    private View[]         children;
+    // per child: left, top, right, bottom before then after the change
+    private int[]          bounds;
+    private boolean        isCaptured;
+
+    LayoutDriver(ViewGroup[] parents, Runnable change) {
+        this.parents = parents;
+        this.change = change;
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(this);
+        animator.addListener(this);
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        capture();
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        apply(animation.getAnimatedFraction());
+    }
+
+    /**
+     * Sets the bounds of every child at the given interpolated fraction of the step.
+     */
+    void apply(float fraction) {
+        if (!isCaptured) {
+            if (fraction == 0f) {
+                // the children are still where the step starts from
+                return;
+            }
+            // seeked or applied without having been started
+            capture();
+        }
+        for (int i = 0; i < children.length; ++i) {
+            View child = children[i];
+            int offset = i * 8;
+            int left = lerp(bounds[offset], bounds[offset + 4], fraction);
+            int top = lerp(bounds[offset + 1], bounds[offset + 5], fraction);
+            int right = lerp(bounds[offset + 2], bounds[offset + 6], fraction);
+            int bottom = lerp(bounds[offset + 3], bounds[offset + 7], fraction);
+            if (child.getLeft() != left) {
+                child.setLeft(left);
+            }
+            if (child.getTop() != top) {
+                child.setTop(top);
+            }
+            if (child.getRight() != right) {
+                child.setRight(right);
+            }
+            if (child.getBottom() != bottom) {
+                child.setBottom(bottom);
+            }
+        }
+    }
+
+    private void capture() {
+        if (isCaptured) {
+            return;
+        }
+        isCaptured = true;
+        View[] before = children(parents);
+        int[] beforeBounds = new int[before.length * 4];
+        for (int i = 0; i < before.length; ++i) {
+            getBounds(before[i], beforeBounds, i * 4);
+        }
+
+        change.run();
+        for (ViewGroup parent : parents) {
+            parent.measure(View.MeasureSpec.makeMeasureSpec(parent.getWidth(), View.MeasureSpec.EXACTLY),
+                           View.MeasureSpec.makeMeasureSpec(parent.getHeight(), View.MeasureSpec.EXACTLY));
+            parent.layout(parent.getLeft(), parent.getTop(), parent.getRight(), parent.getBottom());
+        }
+
+        children = children(parents);
+        bounds = new int[children.length * 8];
+        for (int i = 0; i < children.length; ++i) {
+            int offset = i * 8;
+            getBounds(children[i], bounds, offset + 4);
+            int previous = indexOf(before, children[i]);
+            if (previous >= 0) {
+                System.arraycopy(beforeBounds, previous * 4, bounds, offset, 4);
+            } else {
+                System.arraycopy(bounds, offset + 4, bounds, offset, 4);
+            }
+        }
+    }
+
+    private static View[] children(ViewGroup[] parents) {
+        int count = 0;
+        for (ViewGroup parent : parents) {
+            count += parent.getChildCount();
+        }
+        View[] children = new View[count];
+        int index = 0;
+        for (ViewGroup parent : parents) {
+            for (int i = 0; i < parent.getChildCount(); ++i) {
+                children[index++] = parent.getChildAt(i);
+            }
+        }
+        return children;
+    }
+
+    private static void getBounds(View view, int[] out, int offset) {
+        out[offset] = view.getLeft();
+        out[offset + 1] = view.getTop();
+        out[offset + 2] = view.getRight();
+        out[offset + 3] = view.getBottom();
+    }
+
+    private static int indexOf(View[] views, View view) {
+        for (int i = 0; i < views.length; ++i) {
+            if (views[i] == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lerp(int from, int to, float fraction) {
+        return Math.round(from + (to - from) * fraction);
+    }
+}
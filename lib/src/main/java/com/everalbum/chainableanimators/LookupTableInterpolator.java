@@ -0,0 +1,73 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.TimeInterpolator;
+
+/**
+ * Interpolator that samples another interpolator into a fixed-size lookup table once, and linearly
+ * interpolates between samples afterwards. Evaluating it costs two array reads regardless of how
+ * expensive the sampled curve is (e.g. a <code>PathInterpolator</code>), and the last evaluated
+ * value is remembered, so animators sharing an instance within a frame only compute it once.
+ * <p>
+ * More samples give a more accurate curve; 0.5% error is typically reached with 100 to 200 samples
+ * for the common material curves. Inputs outside [0, 1] are passed to the sampled interpolator.
+ * Instances are meant to be used from the main thread, like the animators that use them.
+ */
+public final class LookupTableInterpolator implements TimeInterpolator {
+    private final TimeInterpolator source;
+    private final float[]          table;
+    private final int              lastIndex;
+    private float                  lastInput  = Float.NaN;
+    private float                  lastOutput;
+
+    /**
+     * @param source interpolator to sample
+     * @param sampleCount number of intervals to sample the curve in, at least 1
+     */
+    public LookupTableInterpolator(TimeInterpolator source, int sampleCount) {
+        if (source == null) {
+            throw new IllegalArgumentException("Require an interpolator to sample");
+        }
+        if (sampleCount < 1) {
+            throw new IllegalArgumentException("Sample count must be greater than 0.");
+        }
+        this.source = source;
+        lastIndex = sampleCount;
+        table = new float[sampleCount + 1];
+        for (int i = 0; i <= sampleCount; ++i) {
+            table[i] = source.getInterpolation(i / (float) sampleCount);
+        }
+    }
+
+    /**
+     * @return the interpolator sampled by this table
+     */
+    public TimeInterpolator getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of intervals the curve is sampled in
+     */
+    public int getSampleCount() {
+        return lastIndex;
+    }
+
+    @Override
+    public float getInterpolation(float input) {
+        if (input == lastInput) {
+            return lastOutput;
+        }
+        float output;
+        if (input <= 0 || input >= 1) {
+            output = input == 0 ? table[0] : input == 1 ? table[lastIndex] : source.getInterpolation(input);
+        } else {
+            float position = input * lastIndex;
+            int index = Math.min((int) position, lastIndex - 1);
+            float start = table[index];
+            output = start + (table[index + 1] - start) * (position - index);
+        }
+        lastInput = input;
+        lastOutput = output;
+        return output;
+    }
+}
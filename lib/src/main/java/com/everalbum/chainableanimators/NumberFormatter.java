@@ -0,0 +1,159 @@
+package com.everalbum.chainableanimators;
+
+/**
+ * Formats numbers into a reused char array, following a small decimal pattern made of an optional
+ * literal prefix, digits and separators, and an optional literal suffix, e.g. <code>"0"</code>,
+ * <code>"$#,##0.00"</code> or <code>"#,##0 items"</code>:
+ * <ul>
+ *     <li><code>0</code> and <code>#</code> before the decimal point: the integer part, with as
+ *     many digits at least as there are <code>0</code>s</li>
+ *     <li><code>,</code>: groups the integer digits by three</li>
+ *     <li><code>.</code> followed by <code>0</code>s or <code>#</code>s: the number of decimals,
+ *     always shown</li>
+ * </ul>
+ * The prefix can't contain any of the pattern characters <code>#0,.</code>, and the suffix can't
+ * contain <code>#</code> or <code>0</code>, since the number they surround would be ambiguous: a
+ * pattern such as <code>"Level 10: 0"</code> is rejected. Negative numbers are signed before the
+ * prefix, e.g. <code>-$1.50</code>.
+ * <p>
+ * Separators are always <code>,</code> and <code>.</code>, whatever the locale. Numbers are
+ * rounded to the decimals of the pattern beforehand, with {@link #toScaled(double)}, so that
+ * callers can tell whether the displayed digits changed without formatting anything.
+ */
+final class NumberFormatter {
+    private static final int MAX_DECIMALS = 9;
+
+    private final char[]  prefix;
+    private final char[]  suffix;
+    private final int     decimals;
+    private final int     minIntegerDigits;
+    private final boolean isGrouped;
+    private final long    scale;
+
+    NumberFormatter(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Require a pattern to format numbers with");
+        }
+        int digit = indexOfAny(pattern, "#0", 0);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Pattern " + pattern + " has no digits");
+        }
+        // the number spans the pattern characters around its first digit
+        int first = digit;
+        while (first > 0 && isPatternChar(pattern.charAt(first - 1))) {
+            first--;
+        }
+        int last = digit;
+        while (last < pattern.length() - 1 && isPatternChar(pattern.charAt(last + 1))) {
+            last++;
+        }
+        if (indexOfAny(pattern.substring(0, first), "#0,.", 0) >= 0) {
+            throw new IllegalArgumentException("Pattern " + pattern + " has pattern characters in its prefix");
+        }
+        if (indexOfAny(pattern, "#0", last + 1) >= 0) {
+            throw new IllegalArgumentException("Pattern " + pattern + " has digits in its suffix");
+        }
+        prefix = pattern.substring(0, first).toCharArray();
+        suffix = pattern.substring(last + 1).toCharArray();
+        String number = pattern.substring(first, last + 1);
+        int point = number.indexOf('.');
+        String integer = point < 0 ? number : number.substring(0, point);
+        decimals = point < 0 ? 0 : number.length() - point - 1;
+        if (decimals > MAX_DECIMALS || (point >= 0 && number.indexOf('.', point + 1) >= 0)) {
+            throw new IllegalArgumentException("Pattern " + pattern + " has invalid decimals");
+        }
+        int zeros = 0;
+        for (int i = 0; i < integer.length(); ++i) {
+            if (integer.charAt(i) == '0') {
+                zeros++;
+            }
+        }
+        minIntegerDigits = Math.max(1, zeros);
+        isGrouped = integer.indexOf(',') >= 0;
+        long s = 1;
+        for (int i = 0; i < decimals; ++i) {
+            s *= 10;
+        }
+        scale = s;
+    }
+
+    private static boolean isPatternChar(char c) {
+        return "#0,.".indexOf(c) >= 0;
+    }
+
+    /**
+     * @return the index of the first of the given chars in the string, from the given index, or -1
+     */
+    private static int indexOfAny(String string, String chars, int from) {
+        for (int i = from; i < string.length(); ++i) {
+            if (chars.indexOf(string.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of chars an array needs to hold any formatted number
+     */
+    int getMaxLength() {
+        // sign, the 19 digits of a long or more zeros, their group separators, point and decimals
+        int digits = Math.max(19, minIntegerDigits);
+        return 1 + prefix.length + digits + (digits - 1) / 3 + 1 + decimals + suffix.length;
+    }
+
+    /**
+     * @return the number rounded to the decimals of the pattern, as a whole number of its smallest
+     * displayed unit
+     */
+    long toScaled(double value) {
+        return Math.round(value * scale);
+    }
+
+    /**
+     * Formats a number previously rounded with {@link #toScaled(double)}.
+     * @param out array of at least {@link #getMaxLength()} chars
+     * @return the number of chars written
+     */
+    int format(long scaled, char[] out) {
+        int length = 0;
+        if (scaled < 0) {
+            out[length++] = '-';
+        } else {
+            // work with the negative magnitude, which unlike the positive one holds any long
+            scaled = -scaled;
+        }
+        System.arraycopy(prefix, 0, out, length, prefix.length);
+        length += prefix.length;
+        // both are zero or negative, and so are the remainders of their digits
+        long integer = scaled / scale;
+        long fraction = scaled % scale;
+
+        int digits = 1;
+        for (long rest = integer / 10; rest < 0; rest /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minIntegerDigits);
+        int end = length + digits + (isGrouped ? (digits - 1) / 3 : 0);
+        int position = end;
+        for (int i = 0; i < digits; ++i) {
+            if (isGrouped && i > 0 && i % 3 == 0) {
+                out[--position] = ',';
+            }
+            out[--position] = (char) ('0' - integer % 10);
+            integer /= 10;
+        }
+        length = end;
+
+        if (decimals > 0) {
+            out[length++] = '.';
+            for (int i = decimals - 1; i >= 0; --i) {
+                out[length + i] = (char) ('0' - fraction % 10);
+                fraction /= 10;
+            }
+            length += decimals;
+        }
+        System.arraycopy(suffix, 0, out, length, suffix.length);
+        return length + suffix.length;
+    }
+}
@@ -0,0 +1,42 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Steps of a chain played in parallel with each other, through the <code>inParallelWith</code>
+ * methods of {@link ChainableAnimator}. Every type of step joins and ends a group the same way, in
+ * {@link ChainableAnimator#joinGroup} and {@link ChainableAnimator#endStep()}, whatever type of step
+ * follows it.
+ */
+final class ParallelGroup {
+    private final List<Animator> sets = new ArrayList<>();
+
+    void add(AnimatorSet set) {
+        sets.add(set);
+    }
+
+    /**
+     * Plays the sets of every step of the group together, in one set.
+     * @param last last step of the group, cancelled along with the chain when the set is cancelled
+     * @return the set of the group
+     */
+    AnimatorSet close(final ChainableAnimator last) {
+        AnimatorSet set = new AnimatorSet();
+        set.playTogether(sets);
+        sets.clear();
+        set.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                if (!last.state.isDetaching) {
+                    last.cancel();
+                }
+            }
+        });
+        return set;
+    }
+}
@@ -0,0 +1,105 @@
+package com.everalbum.chainableanimators;
+
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Position and tangent angle of a {@link Path}, sampled once at evenly spaced distances along it,
+ * so that moving along the path costs a table lookup per frame instead of a
+ * {@link PathMeasure#getPosTan(float, float[], float[])} call. Tables are cached per path instance;
+ * a path must not be modified once it has been animated along.
+ */
+final class PathTable {
+    private static final int   MIN_SAMPLES     = 16;
+    private static final int   MAX_SAMPLES     = 1024;
+    private static final float SAMPLE_DISTANCE = 4f;
+
+    private static final Map<Path, PathTable> CACHE = new WeakHashMap<>();
+
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] angles;
+    private final int     lastIndex;
+
+    private PathTable(Path path) {
+        PathMeasure measure = new PathMeasure(path, false);
+        float length = 0;
+        do {
+            length += measure.getLength();
+        } while (measure.nextContour());
+        if (!(length > 0)) {
+            // nothing to sample, the views would jump to the origin of their parent
+            throw new IllegalArgumentException("Require a path with a length to animate along");
+        }
+
+        int samples = Math.max(MIN_SAMPLES, Math.min(MAX_SAMPLES, (int) Math.ceil(length / SAMPLE_DISTANCE)));
+        lastIndex = samples;
+        xs = new float[samples + 1];
+        ys = new float[samples + 1];
+        angles = new float[samples + 1];
+
+        float[] pos = new float[2];
+        float[] tan = new float[2];
+        measure.setPath(path, false);
+        float contourStart = 0;
+        float contourLength = measure.getLength();
+        for (int i = 0; i <= samples; ++i) {
+            float distance = length * i / samples;
+            while (distance > contourStart + contourLength && measure.nextContour()) {
+                contourStart += contourLength;
+                contourLength = measure.getLength();
+            }
+            measure.getPosTan(Math.min(distance - contourStart, contourLength), pos, tan);
+            xs[i] = pos[0];
+            ys[i] = pos[1];
+            float angle = (float) Math.toDegrees(Math.atan2(tan[1], tan[0]));
+            if (i > 0) {
+                // unwrap, so interpolating between neighbouring samples never spins the long way
+                float previous = angles[i - 1];
+                angle += 360f * Math.round((previous - angle) / 360f);
+            }
+            angles[i] = angle;
+        }
+    }
+
+    /**
+     * Returns the table of the given path, sampling it the first time. Must be called on the main
+     * thread.
+     */
+    static PathTable of(Path path) {
+        PathTable table = CACHE.get(path);
+        if (table == null) {
+            table = new PathTable(path);
+            CACHE.put(path, table);
+        }
+        return table;
+    }
+
+    float x(float fraction) {
+        return sample(xs, fraction);
+    }
+
+    float y(float fraction) {
+        return sample(ys, fraction);
+    }
+
+    float angle(float fraction) {
+        return sample(angles, fraction);
+    }
+
+    private float sample(float[] table, float fraction) {
+        if (fraction <= 0) {
+            return table[0];
+        }
+        if (fraction >= 1) {
+            return table[lastIndex];
+        }
+        float position = fraction * lastIndex;
+        int index = Math.min((int) position, lastIndex - 1);
+        float start = table[index];
+        return start + (table[index + 1] - start) * (position - index);
+    }
+}
@@ -0,0 +1,139 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.ValueAnimator;
+import android.view.View;
+
+/**
+ * Builds hero transitions between two laid out views, e.g. a thumbnail and its full screen
+ * counterpart:
+ * <pre>
+ *     SharedElementTransition.between(thumbnail, fullImage)
+ *                            .setDuration(300)
+ *                            .then(details)
+ *                            .alpha(0, 1)
+ *                            .start();
+ * </pre>
+ * The target view is moved onto the bounds of the source, then animated back to its own bounds
+ * using translation and scale only, so no layout pass happens during the motion. Nothing is
+ * written to the views until the transition starts. While it is in progress, whether played or
+ * seeked through a {@link ChainTimeline}, the target is scaled around its center and rendered into
+ * a hardware layer, and the source is hidden. Its pivot, layer type and the visibility of the
+ * source are restored once it ends or is cancelled.
+ */
+public final class SharedElementTransition {
+    private SharedElementTransition() {
+    }
+
+    /**
+     * Starts an animation chain with a step that transitions the target view from the bounds of the
+     * source view to its own. Both views must be laid out, and the target must be at rest in its
+     * final position. The step can be timed and chained further like any other, or compiled with
+     * {@link ChainableAnimator#timeline()} to be driven by a gesture.
+     * @param source view the transition starts from
+     * @param target view the transition ends at
+     * @return an instance of {@link ChainableViewAnimator} animating the target view
+     */
+    public static ChainableViewAnimator between(final View source, final View target) {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("Require both a source and a target view");
+        }
+        if (source.getWidth() == 0 || source.getHeight() == 0
+                || target.getWidth() == 0 || target.getHeight() == 0) {
+            throw new IllegalStateException("Views must be laid out before transitioning between them.");
+        }
+        int[] location = new int[2];
+        source.getLocationOnScreen(location);
+        float sourceCenterX = location[0] + source.getWidth() * source.getScaleX() / 2f;
+        float sourceCenterY = location[1] + source.getHeight() * source.getScaleY() / 2f;
+        target.getLocationOnScreen(location);
+        float targetCenterX = location[0] + target.getWidth() * target.getScaleX() / 2f;
+        float targetCenterY = location[1] + target.getHeight() * target.getScaleY() / 2f;
+
+        float scaleX = target.getScaleX();
+        float scaleY = target.getScaleY();
+        float translationX = target.getTranslationX();
+        float translationY = target.getTranslationY();
+        float[] times = {0f, 1f};
+
+        final Transition transition = new Transition(source, target);
+        ChainableViewAnimator step = ChainableAnimator.with(target);
+        step.keyframes(ChainableViewAnimator.TRANSLATION_X, times,
+                       new float[]{translationX + sourceCenterX - targetCenterX, translationX}, null)
+            .keyframes(ChainableViewAnimator.TRANSLATION_Y, times,
+                       new float[]{translationY + sourceCenterY - targetCenterY, translationY}, null)
+            .keyframes(ChainableViewAnimator.SCALE_X, times,
+                       new float[]{source.getWidth() * source.getScaleX() / target.getWidth(), scaleX}, null)
+            .keyframes(ChainableViewAnimator.SCALE_Y, times,
+                       new float[]{source.getHeight() * source.getScaleY() / target.getHeight(), scaleY}, null);
+        // seeking runs no hooks, so follow the progress of the transition as well
+        step.driver(0).animator.addUpdateListener(transition);
+        Runnable end = new Runnable() {
+            @Override
+            public void run() {
+                transition.end();
+            }
+        };
+        return step.doOnAnimationStart(new Runnable() {
+                       @Override
+                       public void run() {
+                           transition.begin();
+                       }
+                   })
+                   .doOnAnimationEnd(end)
+                   .doOnAnimationCancel(end);
+    }
+
+    /**
+     * State of the views while the transition is in progress, and what to restore afterwards.
+     */
+    private static final class Transition implements ValueAnimator.AnimatorUpdateListener {
+        private final View source;
+        private final View target;
+        private boolean    isInProgress;
+        private int        sourceVisibility;
+        private int        targetLayerType;
+        private float      pivotX;
+        private float      pivotY;
+
+        Transition(View source, View target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            if (animation.getAnimatedFraction() < 1f) {
+                begin();
+            } else {
+                end();
+            }
+        }
+
+        void begin() {
+            if (isInProgress) {
+                return;
+            }
+            isInProgress = true;
+            sourceVisibility = source.getVisibility();
+            targetLayerType = target.getLayerType();
+            pivotX = target.getPivotX();
+            pivotY = target.getPivotY();
+            // scale around the center of the target, which is where its pivot is by default
+            target.setPivotX(target.getWidth() / 2f);
+            target.setPivotY(target.getHeight() / 2f);
+            target.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            source.setVisibility(View.INVISIBLE);
+        }
+
+        void end() {
+            if (!isInProgress) {
+                return;
+            }
+            isInProgress = false;
+            target.setPivotX(pivotX);
+            target.setPivotY(pivotY);
+            target.setLayerType(targetLayerType, null);
+            source.setVisibility(sourceVisibility);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Single animator driving slot tracks of every item of some {@link FloatSlots} within a step. The
+ * start and end value of every track of every item are stored in a {@link TrackTable}, and each
+ * frame updates every item in one loop per track. The host is only invalidated if a value actually
+ * changed.
+ */
+final class SlotDriver extends AnimatorListenerAdapter
+        implements ValueAnimator.AnimatorUpdateListener, TrackTable.Source {
+    final FloatSlots         slots;
+    final ValueAnimator      animator;
+    private final TrackTable tracks;
+
+    SlotDriver(FloatSlots slots) {
+        this.slots = slots;
+        tracks = new TrackTable(slots.count, this);
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(this);
+        animator.addListener(this);
+    }
+
+    /**
+     * Adds a track animating the slot of every item to the given value, from the given value or
+     * from its value when the driver starts if {@link Float#NaN}.
+     */
+    void add(int slot, float from, float to) {
+        tracks.add(slot, from, to);
+    }
+
+    /**
+     * Adds a track animating the slot of every item by the given amount, from its current value.
+     */
+    void addBy(int slot, float by) {
+        tracks.addBy(slot, by);
+    }
+
+    @Override
+    public float get(int item, int slot) {
+        return slots.buffer.get(slots.index(item, slot));
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        tracks.resolveStartValues();
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        apply(animation.getAnimatedFraction());
+    }
+
+    /**
+     * Writes the values of every track of every item at the given interpolated fraction of the step.
+     */
+    void apply(float fraction) {
+        // in case it was seeked or applied without having been started
+        tracks.resolveStartValues();
+        FloatBuffer buffer = slots.buffer;
+        float[] starts = tracks.starts;
+        float[] ends = tracks.ends;
+        int count = slots.count;
+        int stride = slots.stride;
+        boolean isChanged = false;
+        for (int t = 0; t < tracks.trackCount; ++t) {
+            int offset = t * count;
+            int index = slots.index(0, tracks.keys[t]);
+            for (int i = 0; i < count; ++i, index += stride) {
+                float from = starts[offset + i];
+                float value = from + (ends[offset + i] - from) * fraction;
+                if (buffer.get(index) != value) {
+                    buffer.put(index, value);
+                    isChanged = true;
+                }
+            }
+        }
+        if (isChanged) {
+            slots.host.invalidate();
+        }
+    }
+}
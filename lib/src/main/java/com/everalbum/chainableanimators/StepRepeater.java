@@ -0,0 +1,169 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.view.animation.LinearInterpolator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Repeats the animations of a step together, as a unit. A single linear animator plays one
+ * iteration of the step per repetition, and seeks every animation of the step to the same position
+ * within it each frame, so animations of different durations or start delays stay in step with each
+ * other across iterations, whatever their type. The lifecycle of the repeater is forwarded to the
+ * listeners of the animations it seeks.
+ * <p>
+ * Like {@link AnimatorSet}, a duration or interpolator set on the repeater is applied to every
+ * animation of the step instead. Animations that can't be seeked on this api level, i.e. sets
+ * before Android O, are started again at each iteration instead.
+ */
+final class StepRepeater extends ValueAnimator implements ValueAnimator.AnimatorUpdateListener, Animator.AnimatorListener {
+    private static final TimeInterpolator LINEAR       = new LinearInterpolator();
+    private static final int              EVENT_START  = 0;
+    private static final int              EVENT_REPEAT = 1;
+    private static final int              EVENT_CANCEL = 2;
+    private static final int              EVENT_END    = 3;
+
+    final Animator[]           children;
+    // copy of the listeners of a child being forwarded an event, reused so forwarding allocates nothing
+    private AnimatorListener[] forwarded = new AnimatorListener[2];
+
+    StepRepeater(List<Animator> animators, int repeatCount, int repeatMode) {
+        children = animators.toArray(new Animator[animators.size()]);
+        setFloatValues(0f, 1f);
+        super.setInterpolator(LINEAR);
+        super.setDuration(getIterationDuration());
+        setRepeatCount(repeatCount);
+        setRepeatMode(repeatMode);
+        addUpdateListener(this);
+        addListener(this);
+    }
+
+    @Override
+    public ValueAnimator setDuration(long duration) {
+        for (Animator child : children) {
+            child.setDuration(duration);
+        }
+        return super.setDuration(getIterationDuration());
+    }
+
+    @Override
+    public void setInterpolator(TimeInterpolator interpolator) {
+        for (Animator child : children) {
+            child.setInterpolator(interpolator);
+        }
+    }
+
+    /**
+     * @return the duration of one iteration of the step: until its last animation ends
+     */
+    private long getIterationDuration() {
+        long duration = 0;
+        for (Animator child : children) {
+            duration = Math.max(duration, child.getStartDelay() + getLength(child));
+        }
+        return duration;
+    }
+
+    private static long getLength(Animator child) {
+        long duration = Math.max(0, child.getDuration());
+        if (child instanceof ValueAnimator && ((ValueAnimator) child).getRepeatCount() > 0) {
+            duration *= ((ValueAnimator) child).getRepeatCount() + 1;
+        }
+        return duration;
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        long time = Math.round(getAnimatedFraction() * getDuration());
+        for (Animator child : children) {
+            if (ChainTimeline.isSeekable(child)) {
+                long local = Math.max(0, Math.min(time - child.getStartDelay(), getLength(child)));
+                ChainTimeline.seek(child, local);
+            }
+        }
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        for (Animator child : children) {
+            if (ChainTimeline.isSeekable(child)) {
+                forward(child, EVENT_START);
+            } else {
+                child.start();
+            }
+        }
+    }
+
+    @Override
+    public void onAnimationRepeat(Animator animation) {
+        for (Animator child : children) {
+            if (ChainTimeline.isSeekable(child)) {
+                forward(child, EVENT_REPEAT);
+            } else {
+                child.end();
+                child.start();
+            }
+        }
+    }
+
+    @Override
+    public void onAnimationCancel(Animator animation) {
+        for (Animator child : children) {
+            if (ChainTimeline.isSeekable(child)) {
+                forward(child, EVENT_CANCEL);
+            } else {
+                child.cancel();
+            }
+        }
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+        for (Animator child : children) {
+            if (ChainTimeline.isSeekable(child)) {
+                forward(child, EVENT_END);
+            } else if (child.isStarted()) {
+                child.end();
+            }
+        }
+    }
+
+    private void forward(Animator child, int event) {
+        List<AnimatorListener> listeners = child.getListeners();
+        if (listeners == null) {
+            return;
+        }
+        // listeners may remove themselves while being called, or cancel the chain, which forwards
+        // again before this returns and then gets a copy of its own
+        AnimatorListener[] copy = forwarded;
+        forwarded = null;
+        int count = listeners.size();
+        if (copy == null || copy.length < count) {
+            copy = new AnimatorListener[Math.max(count, copy == null ? 0 : copy.length * 2)];
+        }
+        copy = listeners.toArray(copy);
+        for (int i = 0; i < count; ++i) {
+            AnimatorListener listener = copy[i];
+            switch (event) {
+                case EVENT_START:
+                    listener.onAnimationStart(child);
+                    break;
+                case EVENT_REPEAT:
+                    listener.onAnimationRepeat(child);
+                    break;
+                case EVENT_CANCEL:
+                    listener.onAnimationCancel(child);
+                    break;
+                default:
+                    listener.onAnimationEnd(child);
+                    break;
+            }
+        }
+        Arrays.fill(copy, 0, count, null);
+        forwarded = copy;
+    }
+}
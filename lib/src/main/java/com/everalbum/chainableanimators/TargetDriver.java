@@ -0,0 +1,202 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+/**
+ * Single animator driving any number of setter tracks of the target objects of a step. The
+ * keyframes of a track are evenly spaced over the step, and stored with those of every other track
+ * in one flat float array, so evaluating a frame allocates nothing. Segments are extrapolated
+ * beyond the start and end of the step, which keeps the overshoot of interpolators such as
+ * {@link android.view.animation.OvershootInterpolator}.
+ * <p>
+ * Each frame applies the setters of every target first, then invalidates each view drawing the
+ * targets once, through its {@link DrawableHost}: drawables attached to a view invalidate the
+ * region they draw in, targets drawn by a view set with
+ * {@link ChainableTargetAnimator#invalidating(View)} the whole view.
+ */
+final class TargetDriver extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+    final ValueAnimator animator;
+
+    // per target: object, and the view drawing it if set explicitly
+    private Object[]              targets       = new Object[1];
+    private View[]                explicitHosts = new View[1];
+    private int                   targetCount;
+    // per track: target index, setter, and the range of its keyframes in the values below
+    private int[]                 trackTargets  = new int[2];
+    private FloatSetter<Object>[] setters;
+    private int[]                 offsets       = new int[2];
+    private int[]                 lengths       = new int[2];
+    private int                   trackCount;
+    private float[]               values        = new float[4];
+    private int                   keyCount;
+    // views drawing the targets, found on the first frame and whenever the driver starts
+    private DrawableHost[]        hosts;
+    private int                   hostCount;
+
+    @SuppressWarnings("unchecked")
+    TargetDriver() {
+        setters = new FloatSetter[2];
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(this);
+        animator.addListener(this);
+    }
+
+    /**
+     * Adds a target to animate.
+     * @return index of the target
+     */
+    int addTarget(Object target) {
+        if (targetCount == targets.length) {
+            Object[] grownTargets = new Object[targetCount * 2];
+            View[] grownHosts = new View[targetCount * 2];
+            System.arraycopy(targets, 0, grownTargets, 0, targetCount);
+            System.arraycopy(explicitHosts, 0, grownHosts, 0, targetCount);
+            targets = grownTargets;
+            explicitHosts = grownHosts;
+        }
+        targets[targetCount] = target;
+        return targetCount++;
+    }
+
+    /**
+     * Sets the view drawing the target, to invalidate after its setters are applied.
+     */
+    void setHost(int target, View host) {
+        explicitHosts[target] = host;
+    }
+
+    /**
+     * Adds a track animating the setter of the target through the given values. The values are
+     * expected to have been validated by the caller.
+     */
+    @SuppressWarnings("unchecked")
+    void add(int target, FloatSetter<?> setter, float[] keyValues) {
+        if (trackCount == setters.length) {
+            int size = trackCount * 2;
+            FloatSetter<Object>[] grownSetters = new FloatSetter[size];
+            int[] grownTargets = new int[size];
+            int[] grownOffsets = new int[size];
+            int[] grownLengths = new int[size];
+            System.arraycopy(setters, 0, grownSetters, 0, trackCount);
+            System.arraycopy(trackTargets, 0, grownTargets, 0, trackCount);
+            System.arraycopy(offsets, 0, grownOffsets, 0, trackCount);
+            System.arraycopy(lengths, 0, grownLengths, 0, trackCount);
+            setters = grownSetters;
+            trackTargets = grownTargets;
+            offsets = grownOffsets;
+            lengths = grownLengths;
+        }
+        if (keyCount + keyValues.length > values.length) {
+            float[] grown = new float[Math.max(keyCount + keyValues.length, values.length * 2)];
+            System.arraycopy(values, 0, grown, 0, keyCount);
+            values = grown;
+        }
+        System.arraycopy(keyValues, 0, values, keyCount, keyValues.length);
+        // the setter was checked against the type of its target when it was added
+        setters[trackCount] = (FloatSetter<Object>) setter;
+        trackTargets[trackCount] = target;
+        offsets[trackCount] = keyCount;
+        lengths[trackCount] = keyValues.length;
+        trackCount++;
+        keyCount += keyValues.length;
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        // drawables may have been attached to their views since the driver was built
+        findHosts();
+        for (int i = 0; i < hostCount; ++i) {
+            hosts[i].attach();
+        }
+    }
+
+    @Override
+    public void onAnimationCancel(Animator animation) {
+        detach();
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+        detach();
+    }
+
+    private void detach() {
+        for (int i = 0; i < hostCount; ++i) {
+            hosts[i].detach();
+        }
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        apply(animation.getAnimatedFraction());
+    }
+
+    /**
+     * Sets the values of every track at the given interpolated fraction of the step, then
+     * invalidates the views drawing the targets.
+     */
+    void apply(float fraction) {
+        if (hosts == null) {
+            // seeked or applied without having been started
+            findHosts();
+        }
+        for (int i = 0; i < hostCount; ++i) {
+            hosts[i].begin();
+        }
+        for (int i = 0; i < trackCount; ++i) {
+            setters[i].set(targets[trackTargets[i]], evaluate(offsets[i], lengths[i], fraction));
+        }
+        for (int i = 0; i < hostCount; ++i) {
+            hosts[i].end();
+        }
+    }
+
+    private void findHosts() {
+        hosts = new DrawableHost[targetCount];
+        hostCount = 0;
+        for (int i = 0; i < targetCount; ++i) {
+            Object target = targets[i];
+            View host = explicitHosts[i];
+            Drawable root = null;
+            View attachedTo = null;
+            if (target instanceof Drawable) {
+                root = DrawableHost.root((Drawable) target);
+                attachedTo = DrawableHost.viewOf(root);
+                if (host == null) {
+                    host = attachedTo;
+                }
+            }
+            if (host == null) {
+                continue;
+            }
+            DrawableHost drawableHost = host(host);
+            if (root != null && attachedTo == host) {
+                drawableHost.addRoot(root);
+            } else {
+                drawableHost.invalidatesAll = true;
+            }
+        }
+    }
+
+    private DrawableHost host(View view) {
+        for (int i = 0; i < hostCount; ++i) {
+            if (hosts[i].host == view) {
+                return hosts[i];
+            }
+        }
+        DrawableHost host = new DrawableHost(view);
+        hosts[hostCount++] = host;
+        return host;
+    }
+
+    private float evaluate(int offset, int length, float fraction) {
+        float position = fraction * (length - 1);
+        int segment = Math.max(0, Math.min((int) Math.floor(position), length - 2));
+        float from = values[offset + segment];
+        return from + (values[offset + segment + 1] - from) * (position - segment);
+    }
+}
@@ -0,0 +1,175 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+import android.view.animation.LinearInterpolator;
+
+/**
+ * Plays a {@link ChainTimeline} between two positions with a single driving animator, running the
+ * lifecycle hooks of the chain as step boundaries are crossed. The animators of the chain are
+ * reused as-is: they are seeked rather than started, so chains with {@link android.animation.AnimatorSet}s
+ * of their own can only be played this way from Android O on.
+ */
+class TimelinePlayer extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+    final ChainTimeline timeline;
+    private final ChainableAnimator chain;
+    private final ValueAnimator     driver;
+    private long    from;
+    private long    to;
+    private boolean isInverted;
+    private int     repeatMode;
+    private int     iteration;
+    private boolean isSwitching;
+    private boolean isSeeking;
+
+    TimelinePlayer(ChainableAnimator chain) {
+        this.chain = chain;
+        timeline = new ChainTimeline(chain);
+        if (!timeline.isSeekable) {
+            throw new IllegalStateException("Chains playing animator sets of their own can only be repeated with "
+                    + "overallRepeat(), reversed or resumed from Android O on.");
+        }
+        timeline.dispatchHooks = true;
+        driver = ValueAnimator.ofFloat(0f, 1f);
+        driver.setInterpolator(new LinearInterpolator());
+        driver.addUpdateListener(this);
+        driver.addListener(this);
+    }
+
+    /**
+     * @return whether the timeline is currently being played toward its start
+     */
+    boolean isPlayingBackward() {
+        return isInverted ? from < to : to < from;
+    }
+
+    boolean isStarted() {
+        return driver.isStarted();
+    }
+
+    /**
+     * @return time played since playback began, across iterations, excluding the start delay
+     */
+    long getPlayedTime() {
+        long offset = Math.abs(timeline.getPlayTime() - (isInverted ? to : from));
+        return iteration * Math.abs(to - from) + offset;
+    }
+
+    /**
+     * Plays the timeline from one position to another, stopping any playback in progress.
+     */
+    void play(long from, long to) {
+        play(from, to, 0, 0, ValueAnimator.RESTART);
+    }
+
+    /**
+     * Plays the timeline from one position to another, stopping any playback in progress.
+     * Repeated iterations reuse the same driver and timeline, so they don't allocate.
+     * @param repeatCount number of times to repeat after the first iteration, or
+     * {@link ValueAnimator#INFINITE}
+     * @param repeatMode {@link ValueAnimator#RESTART} or {@link ValueAnimator#REVERSE}
+     */
+    void play(long from, long to, long startDelay, int repeatCount, int repeatMode) {
+        begin(0, from, to, startDelay, repeatCount, repeatMode, false);
+    }
+
+    /**
+     * Plays the timeline from one position to another, as if it had already been played for the
+     * given time, which wraps over iterations like {@link #getPlayedTime()}. The steps that would
+     * have been played through entirely within the current iteration by then are snapped to their
+     * end and have their start and end hooks run.
+     */
+    void resume(long playedTime, long from, long to, long startDelay, int repeatCount, int repeatMode) {
+        begin(playedTime, from, to, startDelay, repeatCount, repeatMode, true);
+    }
+
+    private void begin(long playedTime, long from, long to, long startDelay, int repeatCount, int repeatMode,
+                       boolean dispatchSkipped) {
+        if (driver.isStarted()) {
+            isSwitching = true;
+            driver.cancel();
+            isSwitching = false;
+        }
+        this.from = from;
+        this.to = to;
+        this.repeatMode = repeatMode;
+        long length = Math.abs(to - from);
+        iteration = 0;
+        long offset = 0;
+        if (length > 0) {
+            iteration = (int) Math.min(playedTime / length, Integer.MAX_VALUE);
+            offset = playedTime - iteration * length;
+            if (repeatCount != ValueAnimator.INFINITE && iteration > repeatCount) {
+                iteration = repeatCount;
+                offset = length;
+            }
+        }
+        isInverted = repeatMode == ValueAnimator.REVERSE && iteration % 2 == 1;
+        long direction = to >= from ? 1 : -1;
+        long position = isInverted ? to - direction * offset : from + direction * offset;
+        boolean forward = isInverted ? to < from : to >= from;
+        timeline.setPlayTime(position);
+        chain.dispatchOverallStart();
+        if (dispatchSkipped) {
+            timeline.dispatchSkipped(position, forward);
+        }
+        timeline.dispatchBegin(position, forward);
+        driver.setDuration(length);
+        driver.setStartDelay(startDelay);
+        driver.setRepeatCount(repeatCount);
+        driver.setRepeatMode(repeatMode);
+        driver.start();
+        if (playedTime > 0) {
+            // earlier iterations were played before the snapshot, not now
+            isSeeking = true;
+            driver.setCurrentPlayTime(iteration * length + offset);
+            isSeeking = false;
+        }
+    }
+
+    void cancel() {
+        driver.cancel();
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        timeline.setPlayTime(from + Math.round((to - from) * animation.getAnimatedFraction()));
+    }
+
+    @Override
+    public void onAnimationRepeat(Animator animation) {
+        if (isSeeking) {
+            return;
+        }
+        iteration++;
+        // finish the iteration that just ended, then begin the next one; the overall start and end
+        // hooks only run once for the whole playback
+        timeline.setPlayTime(isInverted ? from : to);
+        if (repeatMode == ValueAnimator.REVERSE) {
+            isInverted = !isInverted;
+        } else {
+            timeline.dispatchHooks = false;
+            timeline.setPlayTime(from);
+            timeline.dispatchHooks = true;
+        }
+        chain.dispatchOverallRepeat();
+        timeline.dispatchBegin(isInverted ? to : from, !isPlayingBackward());
+    }
+
+    @Override
+    public void onAnimationCancel(Animator animation) {
+        if (!isSwitching) {
+            timeline.dispatchCancel();
+            chain.dispatchOverallCancel();
+        }
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+        if (!isSwitching && !chain.isCancelled()) {
+            timeline.setPlayTime(isInverted ? from : to);
+            chain.dispatchOverallEnd();
+        }
+    }
+}
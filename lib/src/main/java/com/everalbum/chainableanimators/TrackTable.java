@@ -0,0 +1,107 @@
+package com.everalbum.chainableanimators;
+
+/**
+ * Tracks of a bulk driver, each animating the same key of many items between two values, e.g. a
+ * property of many views for {@link BulkViewDriver}, or a slot of many items for
+ * {@link SlotDriver}. The start and end value of every track of every item are stored in two
+ * parallel float arrays, track after track, at index track * item count + item, so a driver can
+ * update every item in one loop per track.
+ */
+final class TrackTable {
+    /**
+     * Reads the values the tracks of a table animate.
+     */
+    interface Source {
+        /**
+         * @return the current value of the key of the given item
+         */
+        float get(int item, int key);
+    }
+
+    final int            itemCount;
+    private final Source source;
+
+    // per track: animated key, and whether its start values are read when the driver starts
+    int[]             keys        = new int[2];
+    private boolean[] fromCurrent = new boolean[2];
+    int               trackCount;
+    // per track and item, at index track * itemCount + item
+    float[]           starts;
+    float[]           ends;
+    private boolean   hasStartValues = true;
+
+    TrackTable(int itemCount, Source source) {
+        this.itemCount = itemCount;
+        this.source = source;
+        starts = new float[itemCount * 2];
+        ends = new float[itemCount * 2];
+    }
+
+    /**
+     * Adds a track animating the key of every item to the given value, from the given value or
+     * from its value when the driver starts if {@link Float#NaN}.
+     */
+    void add(int key, float from, float to) {
+        int offset = addTrack(key, Float.isNaN(from));
+        for (int i = 0; i < itemCount; ++i) {
+            starts[offset + i] = from;
+            ends[offset + i] = to;
+        }
+    }
+
+    /**
+     * Adds a track animating the key of every item by the given amount, from its current value.
+     */
+    void addBy(int key, float by) {
+        int offset = addTrack(key, false);
+        for (int i = 0; i < itemCount; ++i) {
+            float current = source.get(i, key);
+            starts[offset + i] = current;
+            ends[offset + i] = current + by;
+        }
+    }
+
+    private int addTrack(int key, boolean isFromCurrent) {
+        if (trackCount == keys.length) {
+            int size = trackCount * 2;
+            int[] grownKeys = new int[size];
+            boolean[] grownFromCurrent = new boolean[size];
+            float[] grownStarts = new float[size * itemCount];
+            float[] grownEnds = new float[size * itemCount];
+            System.arraycopy(keys, 0, grownKeys, 0, trackCount);
+            System.arraycopy(fromCurrent, 0, grownFromCurrent, 0, trackCount);
+            System.arraycopy(starts, 0, grownStarts, 0, trackCount * itemCount);
+            System.arraycopy(ends, 0, grownEnds, 0, trackCount * itemCount);
+            keys = grownKeys;
+            fromCurrent = grownFromCurrent;
+            starts = grownStarts;
+            ends = grownEnds;
+        }
+        keys[trackCount] = key;
+        fromCurrent[trackCount] = isFromCurrent;
+        if (isFromCurrent) {
+            hasStartValues = false;
+        }
+        return trackCount++ * itemCount;
+    }
+
+    /**
+     * Reads the start values of the tracks animating from the current values, the first time it is
+     * called after such a track was added.
+     */
+    void resolveStartValues() {
+        if (hasStartValues) {
+            return;
+        }
+        for (int t = 0; t < trackCount; ++t) {
+            if (fromCurrent[t]) {
+                int offset = t * itemCount;
+                for (int i = 0; i < itemCount; ++i) {
+                    starts[offset + i] = source.get(i, keys[t]);
+                }
+                fromCurrent[t] = false;
+            }
+        }
+        hasStartValues = true;
+    }
+}
@@ -0,0 +1,534 @@
+package com.everalbum.chainableanimators;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.content.res.ColorStateList;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.view.ViewAnimationUtils;
+import android.widget.TextView;
+
+/**
+ * Single animator driving any number of property tracks of one view within a step. Keyframes of
+ * all tracks are stored in flat primitive arrays, and each frame evaluates every track with a
+ * binary search over its key times, so a track costs the same whether it has 2 or 20 keyframes.
+ * The fraction of the driver already includes the interpolator of the step; the easings of the
+ * keyframes apply on top of it, per segment.
+ * <p>
+ * Color tracks interpolate in linear space, from components converted once when the track is added,
+ * so evaluating them per frame involves no boxing or evaluator objects. Components are encoded back
+ * with a table lookup rather than a power function, and background tints are taken from a small
+ * cache of tints shared by all drivers, rather than allocated on every frame.
+ * <p>
+ * A circular reveal can only be created once the view is attached, so it is created when the
+ * driver starts, and then runs on the render thread alongside the driver. Whenever it can't be, e.g.
+ * before api 21, while the chain is seeked or while its step repeats, the reveal is approximated by
+ * animating the clip bounds of the view.
+ * <p>
+ * Values are only written when they differ from the view's current value, so holds between
+ * keyframes, plateaus and repeated seeks to the same position don't invalidate the view. Likewise,
+ * an animated number is formatted into a reused char array, and only set as the text of the view
+ * when its displayed digits change.
+ */
+final class ViewDriver extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener {
+    static final int BACKGROUND_COLOR = 0;
+    static final int TEXT_COLOR       = 1;
+    static final int BACKGROUND_TINT  = 2;
+
+    private static final int              COLOR_STRIDE = 8;
+    private static final float            GAMMA        = 2.2f;
+    // per channel value: its linear component, and the linear component halfway to the next value
+    private static final float[]          LINEAR       = new float[256];
+    private static final float[]          THRESHOLDS   = new float[255];
+    // direct-mapped cache of background tints, indexed by a hash of their color
+    private static final int[]            TINT_COLORS  = new int[256];
+    private static final ColorStateList[] TINTS        = new ColorStateList[256];
+
+    static {
+        for (int i = 0; i < LINEAR.length; ++i) {
+            LINEAR[i] = (float) Math.pow(i / 255f, GAMMA);
+        }
+        for (int i = 0; i < THRESHOLDS.length; ++i) {
+            THRESHOLDS[i] = (float) Math.pow((i + 0.5f) / 255f, GAMMA);
+        }
+    }
+
+    final View          view;
+    final ValueAnimator animator;
+
+    // per track: animated property, and the range of its keyframes in the arrays below
+    private int[]              properties   = new int[2];
+    private int[]              offsets      = new int[2];
+    private int[]              lengths      = new int[2];
+    private int                trackCount;
+    // per keyframe: time as a fraction of the step, value, and easing of the segment it starts
+    private float[]            times        = new float[8];
+    private float[]            values       = new float[8];
+    private TimeInterpolator[] easings      = new TimeInterpolator[8];
+    private int                keyCount;
+    private boolean            hasStartValues = true;
+    // per color track: target, and linear alpha, red, green, blue of the start then end color
+    private int[]              colorTargets = new int[1];
+    private float[]            colors       = new float[COLOR_STRIDE];
+    private int                colorCount;
+    // motion along a path, if any
+    private PathTable          path;
+    private boolean            rotatesAlongPath;
+    // clip bounds, if any: left, top, right, bottom of the start then end bounds
+    private int[]              clip;
+    private Rect               clipRect;
+    private boolean            isClipped;
+    private boolean            isClipKnown;
+    // circular reveal, if any: center x, center y, start radius, end radius
+    private float[]            reveal;
+    private Animator           revealAnimator;
+    // animated number, if any, and the text last set from it
+    private NumberFormatter    numberFormat;
+    private double             numberFrom;
+    private double             numberTo;
+    private char[]             numberText;
+    private long               shownNumber;
+    private boolean            isNumberShown;
+    // text color last set by a color track, if any
+    private int                shownTextColor;
+    private boolean            isTextColorShown;
+
+    ViewDriver(View view) {
+        this.view = view;
+        animator = ValueAnimator.ofFloat(0f, 1f);
+        animator.addUpdateListener(this);
+        animator.addListener(this);
+    }
+
+    /**
+     * Adds a track animating the property through the given keyframes. The arrays are expected to
+     * have been validated by the caller. A first value of {@link Float#NaN} stands for the value of
+     * the property when the driver starts.
+     */
+    void addKeyframes(int property, float[] keyTimes, float[] keyValues, TimeInterpolator[] keyEasings) {
+        if (trackCount == properties.length) {
+            properties = grow(properties);
+            offsets = grow(offsets);
+            lengths = grow(lengths);
+        }
+        int count = keyTimes.length;
+        ensureKeyCapacity(keyCount + count);
+        System.arraycopy(keyTimes, 0, times, keyCount, count);
+        System.arraycopy(keyValues, 0, values, keyCount, count);
+        for (int i = 0; i < count; ++i) {
+            easings[keyCount + i] = keyEasings != null && i < keyEasings.length ? keyEasings[i] : null;
+        }
+        if (Float.isNaN(keyValues[0])) {
+            hasStartValues = false;
+        }
+        properties[trackCount] = property;
+        offsets[trackCount] = keyCount;
+        lengths[trackCount] = count;
+        trackCount++;
+        keyCount += count;
+    }
+
+    /**
+     * Replaces the easings of the keyframes by their lookup tables, shared with the rest of the chain.
+     */
+    void applyLookupTables(ChainableAnimator.State state) {
+        for (int i = 0; i < keyCount; ++i) {
+            if (easings[i] != null) {
+                easings[i] = state.lookupTable(easings[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds a track animating one of the colors of the view between the given ARGB colors.
+     * @param target {@link #BACKGROUND_COLOR}, {@link #TEXT_COLOR} or {@link #BACKGROUND_TINT}
+     */
+    void addColor(int target, int fromColor, int toColor) {
+        if (colorCount == colorTargets.length) {
+            colorTargets = grow(colorTargets);
+            float[] grown = new float[colors.length * 2];
+            System.arraycopy(colors, 0, grown, 0, colors.length);
+            colors = grown;
+        }
+        int offset = colorCount * COLOR_STRIDE;
+        toLinear(fromColor, colors, offset);
+        toLinear(toColor, colors, offset + 4);
+        colorTargets[colorCount++] = target;
+    }
+
+    /**
+     * Moves the view along the sampled path, replacing any previous path of this driver.
+     * @param rotate whether to rotate the view to the tangent of the path as well
+     */
+    void setPath(PathTable table, boolean rotate) {
+        path = table;
+        rotatesAlongPath = rotate;
+    }
+
+    void setClipBounds(Rect from, Rect to) {
+        clip = new int[]{from.left, from.top, from.right, from.bottom, to.left, to.top, to.right, to.bottom};
+    }
+
+    void setCircularReveal(float centerX, float centerY, float startRadius, float endRadius) {
+        reveal = new float[]{centerX, centerY, startRadius, endRadius};
+    }
+
+    /**
+     * Animates the text of the view, which must be a {@link TextView}, through the numbers between
+     * the given ones, replacing any previous number of this driver.
+     */
+    void setNumber(double from, double to, NumberFormatter format) {
+        numberFrom = from;
+        numberTo = to;
+        numberFormat = format;
+        numberText = new char[format.getMaxLength()];
+        isNumberShown = false;
+    }
+
+    /**
+     * Appends the tracks of this driver to the given description.
+     */
+    void describe(StringBuilder out) {
+        for (int i = 0; i < trackCount; ++i) {
+            out.append(i == 0 ? "" : ", ").append(ViewProperties.name(properties[i]));
+            if (lengths[i] > 2) {
+                out.append(" (").append(lengths[i]).append(" keyframes)");
+            }
+        }
+        String separator = trackCount == 0 ? "" : ", ";
+        for (int i = 0; i < colorCount; ++i) {
+            out.append(separator).append(colorTargets[i] == BACKGROUND_COLOR
+                                                 ? "backgroundColor"
+                                                 : colorTargets[i] == TEXT_COLOR ? "textColor" : "backgroundTint");
+            separator = ", ";
+        }
+        if (path != null) {
+            out.append(separator).append(rotatesAlongPath ? "path (with rotation)" : "path");
+            separator = ", ";
+        }
+        if (clip != null) {
+            out.append(separator).append("clipBounds");
+            separator = ", ";
+        }
+        if (reveal != null) {
+            out.append(separator).append("circularReveal");
+            separator = ", ";
+        }
+        if (numberFormat != null) {
+            out.append(separator).append("number");
+        }
+    }
+
+    /**
+     * @return a rough estimate of the work done by this driver per frame, in property writes
+     */
+    int getCost() {
+        int cost = trackCount + colorCount * 2;
+        if (path != null) {
+            cost += rotatesAlongPath ? 3 : 2;
+        }
+        if (clip != null || reveal != null) {
+            cost++;
+        }
+        if (numberFormat != null) {
+            cost++;
+        }
+        return cost;
+    }
+
+    @Override
+    public void onAnimationStart(Animator animation) {
+        resolveStartValues();
+        // the clip and text may have been changed by another step since this driver last wrote them
+        isClipKnown = false;
+        isNumberShown = false;
+        isTextColorShown = false;
+        if (reveal == null
+                || Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP
+                || !ViewCompat.isAttachedToWindow(view)
+                || !animator.isStarted()) {
+            // not played by itself, but seeked, e.g. by a step repeater
+            return;
+        }
+        ViewCompat.setClipBounds(view, null);
+        revealAnimator = ViewAnimationUtils.createCircularReveal(view,
+                                                                 (int) reveal[0],
+                                                                 (int) reveal[1],
+                                                                 reveal[2],
+                                                                 reveal[3]);
+        revealAnimator.setDuration(animator.getDuration());
+        revealAnimator.setInterpolator(animator.getInterpolator());
+        revealAnimator.start();
+    }
+
+    @Override
+    public void onAnimationCancel(Animator animation) {
+        if (revealAnimator != null) {
+            Animator running = revealAnimator;
+            revealAnimator = null;
+            running.cancel();
+        }
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+        if (revealAnimator != null) {
+            Animator running = revealAnimator;
+            revealAnimator = null;
+            running.end();
+        }
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        apply(animation.getAnimatedFraction());
+    }
+
+    /**
+     * Writes the values of every track at the given interpolated fraction of the step.
+     */
+    void apply(float fraction) {
+        if (!hasStartValues) {
+            // seeked or applied without having been started
+            resolveStartValues();
+        }
+        if (path != null) {
+            write(ViewProperties.X, path.x(fraction));
+            write(ViewProperties.Y, path.y(fraction));
+            if (rotatesAlongPath) {
+                write(ViewProperties.ROTATION, path.angle(fraction));
+            }
+        }
+        for (int i = 0; i < trackCount; ++i) {
+            write(properties[i], evaluate(offsets[i], lengths[i], fraction));
+        }
+        if (clip != null) {
+            clip(lerp(clip[0], clip[4], fraction),
+                 lerp(clip[1], clip[5], fraction),
+                 lerp(clip[2], clip[6], fraction),
+                 lerp(clip[3], clip[7], fraction));
+        }
+        if (reveal != null && revealAnimator == null) {
+            float radius = reveal[2] + (reveal[3] - reveal[2]) * fraction;
+            clip((int) Math.floor(reveal[0] - radius),
+                 (int) Math.floor(reveal[1] - radius),
+                 (int) Math.ceil(reveal[0] + radius),
+                 (int) Math.ceil(reveal[1] + radius));
+        }
+        if (numberFormat != null) {
+            long number = numberFormat.toScaled(numberFrom + (numberTo - numberFrom) * fraction);
+            if (!isNumberShown || number != shownNumber) {
+                int length = numberFormat.format(number, numberText);
+                ((TextView) view).setText(numberText, 0, length);
+                shownNumber = number;
+                isNumberShown = true;
+            }
+        }
+        for (int i = 0; i < colorCount; ++i) {
+            int color = evaluateColor(i * COLOR_STRIDE, fraction);
+            switch (colorTargets[i]) {
+                case BACKGROUND_COLOR:
+                    Drawable background = view.getBackground();
+                    if (!(background instanceof ColorDrawable) || ((ColorDrawable) background).getColor() != color) {
+                        view.setBackgroundColor(color);
+                    }
+                    break;
+                case TEXT_COLOR:
+                    // every call wraps the color in a new ColorStateList, so skip frames where it holds
+                    if (!isTextColorShown || color != shownTextColor) {
+                        if (((TextView) view).getCurrentTextColor() != color) {
+                            ((TextView) view).setTextColor(color);
+                        }
+                        shownTextColor = color;
+                        isTextColorShown = true;
+                    }
+                    break;
+                case BACKGROUND_TINT:
+                    ColorStateList tint = ViewCompat.getBackgroundTintList(view);
+                    if (tint == null || tint.getDefaultColor() != color) {
+                        ViewCompat.setBackgroundTintList(view, tint(color));
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Clips the view to the given bounds, or removes the clip if they cover the entire view.
+     */
+    private void clip(int left, int top, int right, int bottom) {
+        left = Math.max(0, left);
+        top = Math.max(0, top);
+        right = Math.min(view.getWidth(), right);
+        bottom = Math.min(view.getHeight(), bottom);
+        if (left == 0 && top == 0 && right == view.getWidth() && bottom == view.getHeight()) {
+            if (!isClipKnown || isClipped) {
+                ViewCompat.setClipBounds(view, null);
+            }
+            isClipped = false;
+            isClipKnown = true;
+            return;
+        }
+        right = Math.max(left, right);
+        bottom = Math.max(top, bottom);
+        if (isClipKnown && isClipped
+                && clipRect.left == left && clipRect.top == top
+                && clipRect.right == right && clipRect.bottom == bottom) {
+            return;
+        }
+        if (clipRect == null) {
+            clipRect = new Rect();
+        }
+        clipRect.set(left, top, right, bottom);
+        ViewCompat.setClipBounds(view, clipRect);
+        isClipped = true;
+        isClipKnown = true;
+    }
+
+    private void write(int property, float value) {
+        if (ViewProperties.get(view, property) != value) {
+            ViewProperties.set(view, property, value);
+        }
+    }
+
+    private void resolveStartValues() {
+        if (hasStartValues) {
+            return;
+        }
+        for (int i = 0; i < trackCount; ++i) {
+            if (Float.isNaN(values[offsets[i]])) {
+                values[offsets[i]] = ViewProperties.get(view, properties[i]);
+            }
+        }
+        hasStartValues = true;
+    }
+
+    private static int lerp(int from, int to, float fraction) {
+        return Math.round(from + (to - from) * fraction);
+    }
+
+    private int evaluateColor(int offset, float fraction) {
+        float a = colors[offset] + (colors[offset + 4] - colors[offset]) * fraction;
+        float r = colors[offset + 1] + (colors[offset + 5] - colors[offset + 1]) * fraction;
+        float g = colors[offset + 2] + (colors[offset + 6] - colors[offset + 2]) * fraction;
+        float b = colors[offset + 3] + (colors[offset + 7] - colors[offset + 3]) * fraction;
+        return toChannel(a, false) << 24
+                | toChannel(r, true) << 16
+                | toChannel(g, true) << 8
+                | toChannel(b, true);
+    }
+
+    private static void toLinear(int color, float[] out, int offset) {
+        out[offset] = (color >>> 24) / 255f;
+        out[offset + 1] = LINEAR[(color >> 16) & 0xff];
+        out[offset + 2] = LINEAR[(color >> 8) & 0xff];
+        out[offset + 3] = LINEAR[color & 0xff];
+    }
+
+    private static int toChannel(float value, boolean encode) {
+        if (!encode) {
+            return Math.max(0, Math.min(255, Math.round(value * 255f)));
+        }
+        // the number of channel values whose upper half the linear component reaches
+        int low = 0;
+        int high = THRESHOLDS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (value >= THRESHOLDS[mid]) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return a tint of the given color, reused from the cache when possible
+     */
+    private static ColorStateList tint(int color) {
+        int slot = (color * 0x9E3779B9) >>> 24;
+        ColorStateList tint = TINTS[slot];
+        if (tint == null || TINT_COLORS[slot] != color) {
+            tint = ColorStateList.valueOf(color);
+            TINTS[slot] = tint;
+            TINT_COLORS[slot] = color;
+        }
+        return tint;
+    }
+
+    /**
+     * Evaluates a track at the given fraction. As with the keyframes of an object animator,
+     * fractions before the first keyframe or after the last one, e.g. from an overshooting
+     * interpolator, are extrapolated along the first or last segment.
+     */
+    private float evaluate(int offset, int length, float fraction) {
+        int last = offset + length - 1;
+        if (fraction == times[offset] || length == 1) {
+            return values[offset];
+        }
+        if (fraction == times[last]) {
+            return values[last];
+        }
+        int low;
+        int high;
+        if (fraction < times[offset]) {
+            low = offset;
+            high = offset + 1;
+        } else if (fraction > times[last]) {
+            low = last - 1;
+            high = last;
+        } else {
+            // find the last keyframe at or before the fraction
+            low = offset;
+            high = last;
+            while (high - low > 1) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] <= fraction) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+        }
+        float span = times[high] - times[low];
+        if (span <= 0) {
+            // a jump at the first or last keyframe can't be extrapolated
+            return values[fraction < times[low] ? low : high];
+        }
+        float t = (fraction - times[low]) / span;
+        TimeInterpolator easing = easings[low];
+        if (easing != null) {
+            t = easing.getInterpolation(t);
+        }
+        return values[low] + (values[high] - values[low]) * t;
+    }
+
+    private void ensureKeyCapacity(int capacity) {
+        if (capacity <= times.length) {
+            return;
+        }
+        int size = Math.max(capacity, times.length * 2);
+        float[] grownTimes = new float[size];
+        float[] grownValues = new float[size];
+        TimeInterpolator[] grownEasings = new TimeInterpolator[size];
+        System.arraycopy(times, 0, grownTimes, 0, keyCount);
+        System.arraycopy(values, 0, grownValues, 0, keyCount);
+        System.arraycopy(easings, 0, grownEasings, 0, keyCount);
+        times = grownTimes;
+        values = grownValues;
+        easings = grownEasings;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
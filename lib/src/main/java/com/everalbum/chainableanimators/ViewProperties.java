@@ -0,0 +1,173 @@
+package com.everalbum.chainableanimators;
+
+import android.os.Build;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+/**
+ * Identifiers of the view properties that can be animated by a {@link ChainableViewAnimator}.
+ */
+final class ViewProperties {
+    static final int X             = 0;
+    static final int Y             = 1;
+    static final int Z             = 2;
+    static final int ROTATION      = 3;
+    static final int ROTATION_X    = 4;
+    static final int ROTATION_Y    = 5;
+    static final int TRANSLATION_X = 6;
+    static final int TRANSLATION_Y = 7;
+    static final int TRANSLATION_Z = 8;
+    static final int SCALE_X       = 9;
+    static final int SCALE_Y       = 10;
+    static final int ALPHA         = 11;
+    static final int COUNT         = 12;
+
+    private static final String[] NAMES = {
+            "x", "y", "z", "rotation", "rotationX", "rotationY",
+            "translationX", "translationY", "translationZ", "scaleX", "scaleY", "alpha"
+    };
+
+    private ViewProperties() {
+    }
+
+    /**
+     * Adds an animation of the given property to the current set of animations of the animator.
+     * @param by whether to animate by the first value rather than to the given values
+     */
+    static ChainableViewAnimator animate(ChainableViewAnimator animator, int property, boolean by, float... values) {
+        switch (property) {
+            case X:
+                return by ? animator.xBy(values[0]) : animator.x(values);
+            case Y:
+                return by ? animator.yBy(values[0]) : animator.y(values);
+            case Z:
+                return by ? animator.zBy(values[0]) : animator.z(values);
+            case ROTATION:
+                return by ? animator.rotationBy(values[0]) : animator.rotation(values);
+            case ROTATION_X:
+                return by ? animator.rotationXBy(values[0]) : animator.rotationX(values);
+            case ROTATION_Y:
+                return by ? animator.rotationYBy(values[0]) : animator.rotationY(values);
+            case TRANSLATION_X:
+                return by ? animator.translationXBy(values[0]) : animator.translationX(values);
+            case TRANSLATION_Y:
+                return by ? animator.translationYBy(values[0]) : animator.translationY(values);
+            case TRANSLATION_Z:
+                return by ? animator.translationZBy(values[0]) : animator.translationZ(values);
+            case SCALE_X:
+                return by ? animator.scaleXBy(values[0]) : animator.scaleX(values);
+            case SCALE_Y:
+                return by ? animator.scaleYBy(values[0]) : animator.scaleY(values);
+            case ALPHA:
+                return by ? animator.alphaBy(values[0]) : animator.alpha(values);
+            default:
+                throw new IllegalArgumentException("Unknown property " + property);
+        }
+    }
+
+    /**
+     * @return whether the property can be animated on this api level, z and translationZ requiring
+     * api 21
+     */
+    static boolean isSupported(int property) {
+        return (property != Z && property != TRANSLATION_Z)
+                || Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
+    }
+
+    /**
+     * @return whether animating the property through several values sets the views to the first
+     * value right away, as {@link ChainableViewAnimator#alpha(float...)},
+     * {@link ChainableViewAnimator#translationX(float...)} and
+     * {@link ChainableViewAnimator#translationY(float...)} do
+     */
+    static boolean setsStartValue(int property) {
+        return property == ALPHA || property == TRANSLATION_X || property == TRANSLATION_Y;
+    }
+
+    /**
+     * @return the name of the property, as used by the property methods of {@link ChainableViewAnimator}
+     */
+    static String name(int property) {
+        return NAMES[property];
+    }
+
+    /**
+     * Writes the given value of the property to the view.
+     */
+    static void set(View view, int property, float value) {
+        switch (property) {
+            case X:
+                view.setX(value);
+                break;
+            case Y:
+                view.setY(value);
+                break;
+            case Z:
+                ViewCompat.setZ(view, value);
+                break;
+            case ROTATION:
+                view.setRotation(value);
+                break;
+            case ROTATION_X:
+                view.setRotationX(value);
+                break;
+            case ROTATION_Y:
+                view.setRotationY(value);
+                break;
+            case TRANSLATION_X:
+                view.setTranslationX(value);
+                break;
+            case TRANSLATION_Y:
+                view.setTranslationY(value);
+                break;
+            case TRANSLATION_Z:
+                ViewCompat.setTranslationZ(view, value);
+                break;
+            case SCALE_X:
+                view.setScaleX(value);
+                break;
+            case SCALE_Y:
+                view.setScaleY(value);
+                break;
+            case ALPHA:
+                view.setAlpha(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown property " + property);
+        }
+    }
+
+    /**
+     * Reads the current value of the property from the view.
+     */
+    static float get(View view, int property) {
+        switch (property) {
+            case X:
+                return view.getX();
+            case Y:
+                return view.getY();
+            case Z:
+                return ViewCompat.getZ(view);
+            case ROTATION:
+                return view.getRotation();
+            case ROTATION_X:
+                return view.getRotationX();
+            case ROTATION_Y:
+                return view.getRotationY();
+            case TRANSLATION_X:
+                return view.getTranslationX();
+            case TRANSLATION_Y:
+                return view.getTranslationY();
+            case TRANSLATION_Z:
+                return ViewCompat.getTranslationZ(view);
+            case SCALE_X:
+                return view.getScaleX();
+            case SCALE_Y:
+                return view.getScaleY();
+            case ALPHA:
+                return view.getAlpha();
+            default:
+                throw new IllegalArgumentException("Unknown property " + property);
+        }
+    }
+}
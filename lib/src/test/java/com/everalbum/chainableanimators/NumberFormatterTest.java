@@ -0,0 +1,73 @@
+package com.everalbum.chainableanimators;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NumberFormatterTest {
+    @Test
+    public void groupsIntegerDigitsByThree() throws Exception {
+        assertEquals("0", format("#,##0", 0));
+        assertEquals("999", format("#,##0", 999));
+        assertEquals("1,000", format("#,##0", 1000));
+        assertEquals("1,234,567", format("#,##0", 1234567));
+        assertEquals("1234567", format("0", 1234567));
+    }
+
+    @Test
+    public void padsToTheMinimumIntegerDigits() throws Exception {
+        assertEquals("007", format("000", 7));
+        assertEquals("0,007", format("0,000", 7));
+    }
+
+    @Test
+    public void roundsToTheDecimalsOfThePattern() throws Exception {
+        assertEquals("1.50", format("0.00", 1.499));
+        assertEquals("0.05", format("0.00", 0.05));
+        assertEquals("12.3", format("#.#", 12.34));
+    }
+
+    @Test
+    public void signsNegativeNumbersBeforeThePrefix() throws Exception {
+        assertEquals("-$1,234.50", format("$#,##0.00", -1234.5));
+        assertEquals("-$0.05", format("$0.00", -0.05));
+        assertEquals("-3 items", format("#,##0 items", -3));
+    }
+
+    @Test
+    public void formatsTheExtremesOfLong() throws Exception {
+        assertEquals("-9,223,372,036,854,775,808", formatScaled("#,##0", Long.MIN_VALUE));
+        assertEquals("9,223,372,036,854,775,807", formatScaled("#,##0", Long.MAX_VALUE));
+        assertEquals("-92233720368547758.08", formatScaled("0.00", Long.MIN_VALUE));
+        assertEquals("-$9,223,372,036,854,775,808 items", formatScaled("$#,##0 items", Long.MIN_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDigitsAroundTheNumber() throws Exception {
+        new NumberFormatter("Level 10: 0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPatternCharactersInThePrefix() throws Exception {
+        new NumberFormatter("approx. 0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPatternsWithoutDigits() throws Exception {
+        new NumberFormatter("items");
+    }
+
+    private static String format(String pattern, double value) {
+        NumberFormatter formatter = new NumberFormatter(pattern);
+        return formatScaled(formatter, formatter.toScaled(value));
+    }
+
+    private static String formatScaled(String pattern, long scaled) {
+        return formatScaled(new NumberFormatter(pattern), scaled);
+    }
+
+    private static String formatScaled(NumberFormatter formatter, long scaled) {
+        char[] out = new char[formatter.getMaxLength()];
+        return new String(out, 0, formatter.format(scaled, out));
+    }
+}